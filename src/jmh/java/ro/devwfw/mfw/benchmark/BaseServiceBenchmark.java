@@ -0,0 +1,86 @@
+package ro.devwfw.mfw.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ro.devwfw.mfw.cache.EntityCacheManager;
+import ro.devwfw.mfw.model.DemoEntity;
+import ro.devwfw.mfw.service.BaseService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BaseService#findOne(Class, Long)} with a warm and a cold
+ * cache and {@link BaseService#findAll(Class)} at several table sizes, on the
+ * embedded HSQLDB.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+
+    private BaseService baseService;
+
+    private EntityCacheManager entityCacheManager;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        baseService = context.getBean(BaseService.class);
+        entityCacheManager = context.getBean(EntityCacheManager.class);
+
+        long existing = baseService.count(DemoEntity.class);
+        List<DemoEntity> demoEntities = new ArrayList<>();
+        for (long i = existing; i < tableSize; i++) {
+            DemoEntity demoEntity = new DemoEntity();
+            demoEntity.setDescription("Benchmark entity " + i);
+            demoEntities.add(demoEntity);
+        }
+        baseService.createAll(demoEntities);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DemoEntity findOneWarmCache() {
+        return baseService.findOne(DemoEntity.class, 1L);
+    }
+
+    @Benchmark
+    public DemoEntity findOneColdCache() {
+        entityCacheManager.getCache(DemoEntity.class).evict(1L);
+        return baseService.findOne(DemoEntity.class, 1L);
+    }
+
+    @Benchmark
+    public Collection<DemoEntity> findAll() {
+        return baseService.findAll(DemoEntity.class);
+    }
+}
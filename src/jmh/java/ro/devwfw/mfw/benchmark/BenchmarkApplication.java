@@ -0,0 +1,29 @@
+package ro.devwfw.mfw.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ro.devwfw.mfw.Application;
+
+/**
+ * Starts the application for benchmarks which need the Spring context, on a
+ * random port, with the embedded HSQLDB and quiet logging.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param properties extra properties in the key=value form
+     * @return the started application context
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "logging.level.root=WARN", "logging.level.ro.devwfw=WARN")
+                .properties(properties)
+                .run();
+    }
+}
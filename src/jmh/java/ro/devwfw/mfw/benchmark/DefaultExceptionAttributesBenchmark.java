@@ -0,0 +1,61 @@
+package ro.devwfw.mfw.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import ro.devwfw.mfw.web.DefaultExceptionAttributes;
+import ro.devwfw.mfw.web.ExceptionAttributes;
+
+import javax.persistence.NoResultException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the exception path of the controllers: building the exception
+ * attributes and serializing them to JSON.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultExceptionAttributesBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        request = new MockHttpServletRequest("PUT", "/web/demo/42");
+        request.setServletPath("/web/demo/42");
+    }
+
+    @Benchmark
+    public byte[] notFound() throws Exception {
+        ExceptionAttributes exceptionAttributes = new DefaultExceptionAttributes();
+        return objectMapper.writeValueAsBytes(exceptionAttributes.getExceptionAttributes(
+                new NoResultException("Requested entity not found."), request, HttpStatus.NOT_FOUND));
+    }
+
+    @Benchmark
+    public byte[] internalServerError() throws Exception {
+        ExceptionAttributes exceptionAttributes = new DefaultExceptionAttributes();
+        return objectMapper.writeValueAsBytes(exceptionAttributes.getExceptionAttributes(
+                new IllegalStateException("Unexpected failure"), request, HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+}
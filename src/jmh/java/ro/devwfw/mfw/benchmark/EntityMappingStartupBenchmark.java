@@ -0,0 +1,65 @@
+package ro.devwfw.mfw.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapperImpl;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the startup cost of mapping the entities from the index generated by
+ * the EntityNameProcessor with scanning the package. Every measurement runs in a
+ * fresh JVM, so classes and class path resources are read cold as in a new
+ * container.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class EntityMappingStartupBenchmark {
+
+    @Param({"true", "false"})
+    public boolean indexEnabled;
+
+    private ConfigurableApplicationContext context;
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    @Benchmark
+    public Map<?, ?> createMappings() {
+        PathVariableToClassMapperImpl mapper = new PathVariableToClassMapperImpl();
+        ReflectionTestUtils.setField(mapper, "packageToBeScanned", "ro.devwfw.mfw.model");
+        ReflectionTestUtils.setField(mapper, "indexEnabled", indexEnabled);
+        return ReflectionTestUtils.invokeMethod(mapper, "createMappings");
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext applicationStartup() {
+        context = BenchmarkApplication.start("entityName.index.enabled=" + indexEnabled);
+        return context;
+    }
+}
@@ -0,0 +1,105 @@
+package ro.devwfw.mfw.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.bind.support.DefaultDataBinderFactory;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapperImpl;
+import ro.devwfw.mfw.utils.registry.EntityRegistryImpl;
+import ro.devwfw.mfw.web.component.EntityObjectArgumentResolver;
+import ro.devwfw.mfw.web.controller.BaseController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of a JSON request body into an entity by the
+ * {@link EntityObjectArgumentResolver}, as done by the create and update
+ * endpoints. The entity type comes from the entityClass URI template variable
+ * and is looked up in the {@link EntityRegistryImpl}.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityObjectArgumentResolverBenchmark {
+
+    @Param({"demo", "second"})
+    public String entity;
+
+    private EntityObjectArgumentResolver resolver;
+
+    private MethodParameter parameter;
+
+    private WebDataBinderFactory binderFactory;
+
+    private Map<String, String> uriTemplateVars;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() throws Exception {
+        PathVariableToClassMapperImpl mapper = new PathVariableToClassMapperImpl();
+        ReflectionTestUtils.setField(mapper, "packageToBeScanned", "ro.devwfw.mfw.model");
+        ReflectionTestUtils.invokeMethod(mapper, "createMappings");
+        EntityRegistryImpl registry = new EntityRegistryImpl();
+        ReflectionTestUtils.setField(registry, "pathVariableToClassMapper", mapper);
+        ObjectMapper objectMapper = new ObjectMapper();
+        ReflectionTestUtils.setField(registry, "objectMapper", objectMapper);
+        ReflectionTestUtils.invokeMethod(registry, "createMetadata");
+
+        // the registry and the converter share the mapper, as in the application
+        List<HttpMessageConverter<?>> converters = new ArrayList<HttpMessageConverter<?>>();
+        converters.add(new MappingJackson2HttpMessageConverter(objectMapper));
+        resolver = new EntityObjectArgumentResolver(converters, registry);
+        parameter = new MethodParameter(BaseController.class.getMethod("createBaseEntity", BaseEntity.class), 0);
+        binderFactory = new DefaultDataBinderFactory(null);
+
+        uriTemplateVars = Collections.singletonMap(EntityObjectArgumentResolver.ENTITY_PATH_VARIABLE, entity);
+        if ("demo".equals(entity)) {
+            body = "{\"updtimestamp\":1392336000000,\"description\":\"Hello World!\"}".getBytes(StandardCharsets.UTF_8);
+        } else {
+            body = ("{\"updtimestamp\":1392336000000,\"extraProperty\":\"Extra property for demoEntity 1\","
+                    + "\"demoEntity\":{\"id\":1,\"updtimestamp\":1392336000000,\"description\":\"Hello World!\"}}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public Object resolveArgument() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/web/" + entity);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, uriTemplateVars);
+        return resolver.resolveArgument(parameter, new ModelAndViewContainer(), new ServletWebRequest(request), binderFactory);
+    }
+}
@@ -0,0 +1,118 @@
+package ro.devwfw.mfw.benchmark;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import ro.devwfw.mfw.model.DemoEntity;
+import ro.devwfw.mfw.model.SecondEntity;
+import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapperImpl;
+import ro.devwfw.mfw.utils.registry.EntityMetadata;
+import ro.devwfw.mfw.utils.registry.EntityRegistryImpl;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the readers and writers of the {@link EntityRegistryImpl} built on an
+ * ObjectMapper with reflective property accessors and on one tuned as the shared
+ * ObjectMapper of the application, with the accessors generated by the
+ * AfterburnerModule. Measures the encoding of a single entity, as a get
+ * response, its decoding, as a create or update body, and the decoding of a
+ * list, as a batch body.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class EntitySerializationBenchmark {
+
+    @Param({"reflection", "afterburner"})
+    public String accessors;
+
+    @Param({"100"})
+    public int listSize;
+
+    private EntityMetadata<SecondEntity> metadata;
+
+    private SecondEntity entity;
+
+    private byte[] body;
+
+    private byte[] listBody;
+
+    @Setup
+    public void setup() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("afterburner".equals(accessors)) {
+            builder.modulesToInstall(new AfterburnerModule())
+                    .featuresToDisable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE, MapperFeature.USE_GETTERS_AS_SETTERS);
+        }
+        ObjectMapper objectMapper = builder.build();
+
+        PathVariableToClassMapperImpl mapper = new PathVariableToClassMapperImpl();
+        ReflectionTestUtils.setField(mapper, "packageToBeScanned", "ro.devwfw.mfw.model");
+        ReflectionTestUtils.invokeMethod(mapper, "createMappings");
+        EntityRegistryImpl registry = new EntityRegistryImpl();
+        ReflectionTestUtils.setField(registry, "pathVariableToClassMapper", mapper);
+        ReflectionTestUtils.setField(registry, "objectMapper", objectMapper);
+        ReflectionTestUtils.invokeMethod(registry, "createMetadata");
+        metadata = registry.getMetadata(SecondEntity.class);
+
+        List<SecondEntity> entities = new ArrayList<>();
+        for (long i = 1; i <= listSize; i++) {
+            entities.add(createEntity(i));
+        }
+        entity = entities.get(0);
+        body = encode();
+        listBody = objectMapper.writeValueAsBytes(entities);
+    }
+
+    private static SecondEntity createEntity(long id) {
+        DemoEntity demoEntity = new DemoEntity();
+        demoEntity.setId(id);
+        demoEntity.setUpdtimestamp(new Timestamp(1392336000000L));
+        demoEntity.setDescription("Hello World!");
+        SecondEntity secondEntity = new SecondEntity();
+        secondEntity.setId(id);
+        secondEntity.setUpdtimestamp(new Timestamp(1392336000000L));
+        secondEntity.setExtraProperty("Extra property for demoEntity " + id);
+        secondEntity.setDemoEntity(demoEntity);
+        return secondEntity;
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return metadata.getWriter().writeValueAsBytes(entity);
+    }
+
+    @Benchmark
+    public SecondEntity decode() throws Exception {
+        return metadata.getReader().readValue(body);
+    }
+
+    @Benchmark
+    public List<?> decodeList() throws Exception {
+        return metadata.getListReader().readValue(listBody);
+    }
+}
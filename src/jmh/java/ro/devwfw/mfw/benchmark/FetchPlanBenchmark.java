@@ -0,0 +1,95 @@
+package ro.devwfw.mfw.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ro.devwfw.mfw.model.DemoEntity;
+import ro.devwfw.mfw.model.SecondEntity;
+import ro.devwfw.mfw.service.BaseService;
+import ro.devwfw.mfw.utils.querycount.QueryCounter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and serializing all SecondEntity entities with the lazy
+ * demoEntity written as a reference and with demoEntity expanded. The setup
+ * checks with the {@link QueryCounter} that both plans run a single query.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FetchPlanBenchmark {
+
+    @Param({"", "demoEntity"})
+    public String expand;
+
+    @Param({"1000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+
+    private BaseService baseService;
+
+    private ObjectMapper objectMapper;
+
+    private List<String> fetchPlan;
+
+    @Setup
+    public void setup() throws Exception {
+        context = BenchmarkApplication.start();
+        baseService = context.getBean(BaseService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        fetchPlan = expand.isEmpty() ? Collections.<String>emptyList() : Collections.singletonList(expand);
+
+        List<DemoEntity> demoEntities = new ArrayList<>();
+        for (int i = 0; i < tableSize / 10; i++) {
+            DemoEntity demoEntity = new DemoEntity();
+            demoEntity.setDescription("Benchmark parent " + i);
+            demoEntities.add(demoEntity);
+        }
+        baseService.createAll(demoEntities);
+
+        List<SecondEntity> secondEntities = new ArrayList<>();
+        for (long i = baseService.count(SecondEntity.class); i < tableSize; i++) {
+            SecondEntity secondEntity = new SecondEntity();
+            secondEntity.setExtraProperty("Benchmark child " + i);
+            secondEntity.setDemoEntity(demoEntities.get((int) (i % demoEntities.size())));
+            secondEntities.add(secondEntity);
+        }
+        baseService.createAll(secondEntities);
+
+        QueryCounter.reset();
+        findAllAndSerialize();
+        QueryCounter.assertCount(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] findAllAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(baseService.findAll(SecondEntity.class, fetchPlan));
+    }
+}
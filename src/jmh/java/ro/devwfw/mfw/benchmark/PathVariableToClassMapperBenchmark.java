@@ -0,0 +1,51 @@
+package ro.devwfw.mfw.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapperImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of an entity class by the path variable, done on every
+ * request of the generic controller.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathVariableToClassMapperBenchmark {
+
+    private PathVariableToClassMapperImpl mapper;
+
+    @Setup
+    public void setup() {
+        mapper = new PathVariableToClassMapperImpl();
+        ReflectionTestUtils.setField(mapper, "packageToBeScanned", "ro.devwfw.mfw.model");
+        ReflectionTestUtils.invokeMethod(mapper, "createMappings");
+    }
+
+    @Benchmark
+    public Class<?> getClassByPath() {
+        return mapper.getClassByPath("demo");
+    }
+
+    @Benchmark
+    public Class<?> getClassByUnknownPath() {
+        return mapper.getClassByPath("unknown");
+    }
+}
@@ -0,0 +1,110 @@
+package ro.devwfw.mfw.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ro.devwfw.mfw.model.DemoEntity;
+import ro.devwfw.mfw.model.SecondEntity;
+import ro.devwfw.mfw.service.BaseService;
+import ro.devwfw.mfw.utils.registry.EntityMetadata;
+import ro.devwfw.mfw.utils.registry.EntityRegistry;
+import ro.devwfw.mfw.web.component.WireFormat;
+import ro.devwfw.mfw.web.component.WireFormatMappers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link WireFormat}s on a getAll response of SecondEntity
+ * entities, with the demoEntity reference: the time to encode it as the
+ * message converters do, the time to decode it as the EntityObjectArgumentResolver
+ * does for the batch endpoints, and the size of the payload, printed by the
+ * setup.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public WireFormat format;
+
+    @Param({"1000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+
+    private Collection<SecondEntity> entities;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws Exception {
+        context = BenchmarkApplication.start();
+        BaseService baseService = context.getBean(BaseService.class);
+        WireFormatMappers wireFormatMappers = context.getBean(WireFormatMappers.class);
+
+        List<DemoEntity> demoEntities = new ArrayList<>();
+        for (int i = 0; i < tableSize / 10; i++) {
+            DemoEntity demoEntity = new DemoEntity();
+            demoEntity.setDescription("Benchmark parent " + i);
+            demoEntities.add(demoEntity);
+        }
+        baseService.createAll(demoEntities);
+
+        List<SecondEntity> secondEntities = new ArrayList<>();
+        for (long i = baseService.count(SecondEntity.class); i < tableSize; i++) {
+            SecondEntity secondEntity = new SecondEntity();
+            secondEntity.setExtraProperty("Benchmark child " + i);
+            secondEntity.setDemoEntity(demoEntities.get((int) (i % demoEntities.size())));
+            secondEntities.add(secondEntity);
+        }
+        baseService.createAll(secondEntities);
+        entities = baseService.findAll(SecondEntity.class);
+
+        EntityMetadata<SecondEntity> metadata = context.getBean(EntityRegistry.class).getMetadata(SecondEntity.class);
+        writer = wireFormatMappers.getObjectMapper(format).writer();
+        reader = wireFormatMappers.getReader(metadata.getListReader(), format);
+        payload = encode();
+        System.out.println(format + " payload of " + entities.size() + " entities: " + payload.length + " bytes");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return writer.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public List<?> decode() throws Exception {
+        return reader.readValue(payload);
+    }
+}
@@ -1,18 +1,48 @@
 package ro.devwfw.mfw;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.datatype.hibernate4.Hibernate4Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.Mapping;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cache.CacheManager;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.guava.GuavaCacheManager;
+import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import ro.devwfw.mfw.cache.EntityCacheManager;
+import ro.devwfw.mfw.cache.EntityCacheProperties;
+import ro.devwfw.mfw.cache.EntityCacheResolver;
+import ro.devwfw.mfw.cache.EntityCacheWarmer;
+import ro.devwfw.mfw.cache.EntityResponseCache;
+import ro.devwfw.mfw.cache.invalidation.CacheInvalidationBus;
+import ro.devwfw.mfw.cache.invalidation.LoopbackCacheInvalidationBus;
+import ro.devwfw.mfw.cache.invalidation.MulticastCacheInvalidationBus;
+import ro.devwfw.mfw.datasource.DataSourceRoutingProperties;
+import ro.devwfw.mfw.datasource.ReplicaRoutingDataSource;
+import ro.devwfw.mfw.utils.idgenerator.PooledSequenceValidator;
 import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapper;
 import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapperImpl;
+import ro.devwfw.mfw.utils.registry.EntityRegistry;
+import ro.devwfw.mfw.utils.registry.EntityRegistryImpl;
 import ro.devwfw.mfw.web.component.EntityObjectArgumentResolver;
+import ro.devwfw.mfw.web.component.EntityRequestExecutor;
+import ro.devwfw.mfw.web.component.WireFormatMappers;
 
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +56,7 @@ import java.util.List;
 @SpringBootApplication
 @EnableTransactionManagement
 @EnableCaching
+@EnableConfigurationProperties({EntityCacheProperties.class, DataSourceRoutingProperties.class})
 public class Application {
     /**
      * Entry point for the application.
@@ -38,20 +69,159 @@ public class Application {
         SpringApplication.run(Application.class, args);
     }
 
+    /**
+     * Create a PooledSequenceValidator checking at startup that the entity
+     * sequences are incremented by the allocation size of the entity ids.
+     *
+     * @return A PooledSequenceValidator instance.
+     */
+    @Bean
+    public PooledSequenceValidator pooledSequenceValidator() {
+
+        PooledSequenceValidator pooledSequenceValidator = new PooledSequenceValidator();
+
+        return pooledSequenceValidator;
+    }
+
+    /**
+     * Create the pool of the primary database, configured by spring.datasource
+     * as the one Spring Boot would create.
+     *
+     * @param dataSourceProperties the url and credentials of the primary
+     * @return A DataSource instance.
+     */
+    @Bean
+    @ConfigurationProperties(prefix = DataSourceProperties.PREFIX)
+    public DataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+
+        DataSource primaryDataSource = DataSourceBuilder.create(dataSourceProperties.getClassLoader())
+                .type(dataSourceProperties.getType())
+                .driverClassName(dataSourceProperties.getDriverClassName())
+                .url(dataSourceProperties.getUrl())
+                .username(dataSourceProperties.getUsername())
+                .password(dataSourceProperties.getPassword())
+                .build();
+
+        return primaryDataSource;
+    }
+
+    /**
+     * Create a ReplicaRoutingDataSource sending the read-only transactions to the
+     * replicas of dataSourceRouting.replicas and the writes to the primary.
+     * <p>
+     * The primary pool is created first, as for the dataSource below, so the
+     * schema initialization it triggers does not find this one in creation.
+     *
+     * @param primaryDataSource the pool of the primary database
+     * @return A ReplicaRoutingDataSource instance.
+     */
+    @Bean
+    @DependsOn("primaryDataSource")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource) {
+
+        ReplicaRoutingDataSource replicaRoutingDataSource = new ReplicaRoutingDataSource(primaryDataSource);
+
+        return replicaRoutingDataSource;
+    }
+
+    /**
+     * Create the DataSource used by JPA. The connection is taken at the first
+     * statement, once the read-only flag of the transaction is known, so that
+     * the ReplicaRoutingDataSource can route it.
+     * <p>
+     * The primary pool is created first: Spring Boot initializes the schema
+     * with this DataSource as soon as any DataSource is created, which would
+     * otherwise happen while this one is still being created.
+     *
+     * @param replicaRoutingDataSource routes the connections
+     * @return A DataSource instance.
+     */
+    @Bean
+    @Primary
+    @DependsOn("primaryDataSource")
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+
+        return dataSource;
+    }
+
     /**
      * Create a CacheManager implementation class to be used by Spring where
-     * <code>@Cacheable</code> annotations are applied.
+     * <code>@Cacheable</code> annotations are applied. It holds one region for
+     * every entity annotated with <code>@EntityName</code>.
      *
      * @return A CacheManager instance.
      */
     @Bean
-    public CacheManager cacheManager() {
+    public EntityCacheManager cacheManager() {
 
-        GuavaCacheManager cacheManager = new GuavaCacheManager("baseEntities");
+        EntityCacheManager cacheManager = new EntityCacheManager();
 
         return cacheManager;
     }
 
+    /**
+     * Create the CacheInvalidationBus carrying the evictions of the cache regions
+     * between the instances, selected by entityCache.invalidation.bus.
+     *
+     * @param entityCacheProperties the configuration of the bus
+     * @return A CacheInvalidationBus instance.
+     */
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(EntityCacheProperties entityCacheProperties) {
+
+        EntityCacheProperties.Invalidation invalidation = entityCacheProperties.getInvalidation();
+        CacheInvalidationBus cacheInvalidationBus = invalidation.getBus() == EntityCacheProperties.Bus.MULTICAST
+                ? new MulticastCacheInvalidationBus(invalidation.getGroup(), invalidation.getPort(), invalidation.getTimeToLive(),
+                        invalidation.getNetworkInterface())
+                : new LoopbackCacheInvalidationBus();
+
+        return cacheInvalidationBus;
+    }
+
+    /**
+     * Create an EntityResponseCache holding the encoded JSON of the entities
+     * read by id, bounded by entityCache.response.maxBytes.
+     *
+     * @return An EntityResponseCache instance.
+     */
+    @Bean
+    public EntityResponseCache entityResponseCache() {
+
+        EntityResponseCache entityResponseCache = new EntityResponseCache();
+
+        return entityResponseCache;
+    }
+
+    /**
+     * Create an EntityCacheWarmer loading the most recently updated entities in
+     * the cache regions when the application is ready.
+     *
+     * @return An EntityCacheWarmer instance.
+     */
+    @Bean
+    public EntityCacheWarmer entityCacheWarmer() {
+
+        EntityCacheWarmer entityCacheWarmer = new EntityCacheWarmer();
+
+        return entityCacheWarmer;
+    }
+
+    /**
+     * Create a CacheResolver which selects the region of the entity type used
+     * by the cached method.
+     *
+     * @return A CacheResolver instance.
+     */
+    @Bean
+    public CacheResolver entityCacheResolver() {
+
+        CacheResolver cacheResolver = new EntityCacheResolver(cacheManager());
+
+        return cacheResolver;
+    }
+
     /**
      * Create a PathVariableToClassMapper implementation class to be used in Controllers where
      * you need to find the class by entity name
@@ -66,4 +236,81 @@ public class Application {
         return pathVariableToClassMapper;
     }
 
+    /**
+     * Create an EntityRegistry implementation class holding the constructors and the
+     * Jackson readers and writers of the entities, resolved once at startup
+     *
+     * @return An EntityRegistry instance
+     */
+    @Bean
+    public EntityRegistry entityRegistry() {
+
+        EntityRegistry entityRegistry = new EntityRegistryImpl();
+
+        return entityRegistry;
+    }
+
+    /**
+     * Create an EntityRequestExecutor running the generic CRUD requests on a pool
+     * bounded by the size of the connection pool
+     *
+     * @return An EntityRequestExecutor instance
+     */
+    @Bean
+    public EntityRequestExecutor entityRequestExecutor() {
+
+        EntityRequestExecutor entityRequestExecutor = new EntityRequestExecutor();
+
+        return entityRequestExecutor;
+    }
+
+    /**
+     * Create the WireFormatMappers providing the ObjectMappers of the Smile
+     * and CBOR encodings negotiated by the /web routes.
+     *
+     * @return A WireFormatMappers instance.
+     */
+    @Bean
+    public WireFormatMappers wireFormatMappers() {
+
+        WireFormatMappers wireFormatMappers = new WireFormatMappers();
+
+        return wireFormatMappers;
+    }
+
+    /**
+     * Create the Jackson module for Hibernate, registered by Spring Boot on the shared
+     * ObjectMapper. Lazy associations which were not fetched are written as references
+     * holding only the id, e.g. {"id":1}, instead of being loaded.
+     *
+     * @param entityManagerFactory provides the identifier names of the entities
+     * @return A Hibernate4Module instance
+     */
+    @Bean
+    public Module hibernate4Module(EntityManagerFactory entityManagerFactory) {
+
+        Mapping mapping = (SessionFactoryImplementor) entityManagerFactory.unwrap(SessionFactory.class);
+        Hibernate4Module hibernate4Module = new Hibernate4Module(mapping);
+        hibernate4Module.enable(Hibernate4Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+
+        return hibernate4Module;
+    }
+
+    /**
+     * Create the Jackson module replacing the reflective property accessors of the
+     * serializers and deserializers with generated bytecode, registered by Spring Boot
+     * on the shared ObjectMapper and applied to the ones of the binary wire formats.
+     * The accessors of the entities are generated at startup, when the EntityRegistry
+     * builds their readers and writers.
+     *
+     * @return An AfterburnerModule instance
+     */
+    @Bean
+    public Module afterburnerModule() {
+
+        AfterburnerModule afterburnerModule = new AfterburnerModule();
+
+        return afterburnerModule;
+    }
+
 }
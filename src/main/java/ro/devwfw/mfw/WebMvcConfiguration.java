@@ -1,14 +1,18 @@
 package ro.devwfw.mfw;
 
-import org.springframework.context.annotation.Bean;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
+import ro.devwfw.mfw.utils.registry.EntityRegistry;
 import ro.devwfw.mfw.web.component.EntityObjectArgumentResolver;
+import ro.devwfw.mfw.web.component.RoutingSessionInterceptor;
+import ro.devwfw.mfw.web.component.WireFormatMappers;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -18,13 +22,59 @@ import java.util.List;
 @Configuration
 public class WebMvcConfiguration extends WebMvcConfigurationSupport {
 
+    /**
+     * The EntityRegistry provides the readers of the request bodies.
+     */
+    @Autowired
+    private EntityRegistry entityRegistry;
+
+    /**
+     * The ObjectMapper configured by Spring Boot, with the Hibernate module
+     * serializing lazy associations as references.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * The ObjectMappers of the binary wire formats.
+     */
+    @Autowired
+    private WireFormatMappers wireFormatMappers;
+
+    /**
+     * The entity request bodies are read by the message converters which write
+     * the responses, so both go through the shared ObjectMappers, and a body
+     * none of them reads is rejected as by @RequestBody.
+     */
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> argumentResolvers) {
-        MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter = new MappingJackson2HttpMessageConverter();
-        List<HttpMessageConverter<?>> httpMessageConverter = new ArrayList<HttpMessageConverter<?>>();
-        httpMessageConverter.add(mappingJackson2HttpMessageConverter);
-        final EntityObjectArgumentResolver entityObjectArgumentResolver = new EntityObjectArgumentResolver(httpMessageConverter);
+        final EntityObjectArgumentResolver entityObjectArgumentResolver = new EntityObjectArgumentResolver(getMessageConverters(),
+                entityRegistry);
         argumentResolvers.add(entityObjectArgumentResolver);
     }
 
+    /**
+     * Binds every request to its session, read by the ReplicaRoutingDataSource.
+     */
+    @Override
+    protected void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RoutingSessionInterceptor());
+    }
+
+    /**
+     * The default JSON converter uses its own ObjectMapper, replace it with the
+     * shared one so that responses are written as the streamed ones. The
+     * converters of the binary wire formats are added after it, so JSON stays
+     * the default.
+     */
+    @Override
+    protected void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter) {
+                ((MappingJackson2HttpMessageConverter) converter).setObjectMapper(objectMapper);
+            }
+        }
+        converters.addAll(wireFormatMappers.createBinaryConverters());
+    }
+
 }
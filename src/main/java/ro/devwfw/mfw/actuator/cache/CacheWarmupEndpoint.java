@@ -0,0 +1,41 @@
+package ro.devwfw.mfw.actuator.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.stereotype.Component;
+import ro.devwfw.mfw.cache.EntityCacheWarmer;
+
+import java.util.Map;
+
+/**
+ * The CacheWarmupEndpoint is the Actuator 'cachewarmup' endpoint. A GET
+ * returns the state of the last warm-up of the entity cache, a POST starts a
+ * new one, see {@link CacheWarmupMvcEndpoint}.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@Component
+public class CacheWarmupEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    @Autowired
+    private EntityCacheWarmer entityCacheWarmer;
+
+    public CacheWarmupEndpoint() {
+        super("cachewarmup");
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        return entityCacheWarmer.getStatus();
+    }
+
+    /**
+     * Starts a warm-up in the background.
+     *
+     * @return <code>false</code> if a warm-up is already running
+     */
+    public boolean warmUp() {
+        return entityCacheWarmer.warmUp();
+    }
+}
@@ -0,0 +1,39 @@
+package ro.devwfw.mfw.actuator.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.mvc.EndpointMvcAdapter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Exposes the {@link CacheWarmupEndpoint} over HTTP. A POST starts a warm-up
+ * and answers HTTP status 202 with the state of the previous one, or HTTP
+ * status 409 if a warm-up is already running.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@Component
+public class CacheWarmupMvcEndpoint extends EndpointMvcAdapter {
+
+    @Autowired
+    public CacheWarmupMvcEndpoint(CacheWarmupEndpoint delegate) {
+        super(delegate);
+    }
+
+    @RequestMapping(method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Object warmUp() {
+        CacheWarmupEndpoint delegate = (CacheWarmupEndpoint) getDelegate();
+        if (!delegate.isEnabled()) {
+            return getDisabledResponse();
+        }
+        HttpStatus status = delegate.warmUp() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return new ResponseEntity<Object>(delegate.invoke(), status);
+    }
+}
@@ -0,0 +1,83 @@
+package ro.devwfw.mfw.actuator.cache;
+
+import com.google.common.cache.CacheStats;
+import org.springframework.boot.actuate.cache.CacheStatistics;
+import org.springframework.boot.actuate.cache.CacheStatisticsProvider;
+import org.springframework.boot.actuate.cache.DefaultCacheStatistics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ro.devwfw.mfw.cache.EntityCache;
+import ro.devwfw.mfw.cache.OffHeapEntityTier;
+
+import java.util.Collection;
+
+/**
+ * The EntityCacheStatisticsProvider exposes the statistics of every
+ * {@link EntityCache} region through the Actuator 'metrics' endpoint as
+ * <code>cache.{entityName}.*</code>. Besides the size and the hit and miss
+ * ratios provided for every cache it adds the hit, miss, eviction and load
+ * counters, the number of misses coalesced into the load of another reader
+ * and the average load time in milliseconds.
+ * <p>
+ * These are the statistics of the on-heap tier. A region with an off-heap
+ * tier adds offHeap.{hit.count,miss.count,hit.ratio,demotion.count}, the
+ * misses of the on-heap tier looked up in the off-heap tier.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@Component
+public class EntityCacheStatisticsProvider implements CacheStatisticsProvider<EntityCache> {
+
+    @Override
+    public CacheStatistics getCacheStatistics(CacheManager cacheManager, EntityCache cache) {
+        EntityCacheStatistics statistics = new EntityCacheStatistics(cache.getStats(), cache.getCoalescedCount(),
+                cache.getOffHeapTier());
+        statistics.setSize(cache.getSize());
+        return statistics;
+    }
+
+    /**
+     * The CacheStatistics of a region built from the Guava CacheStats.
+     */
+    private static class EntityCacheStatistics extends DefaultCacheStatistics {
+
+        private final CacheStats stats;
+
+        private final long coalescedCount;
+
+        private final OffHeapEntityTier offHeapTier;
+
+        EntityCacheStatistics(CacheStats stats, long coalescedCount, OffHeapEntityTier offHeapTier) {
+            this.stats = stats;
+            this.coalescedCount = coalescedCount;
+            this.offHeapTier = offHeapTier;
+            if (stats.requestCount() > 0) {
+                setHitRatio(stats.hitRate());
+                setMissRatio(stats.missRate());
+            }
+        }
+
+        @Override
+        public Collection<Metric<?>> toMetrics(String prefix) {
+            Collection<Metric<?>> metrics = super.toMetrics(prefix);
+            metrics.add(new Metric<Number>(prefix + "hit.count", stats.hitCount()));
+            metrics.add(new Metric<Number>(prefix + "miss.count", stats.missCount()));
+            metrics.add(new Metric<Number>(prefix + "eviction.count", stats.evictionCount()));
+            metrics.add(new Metric<Number>(prefix + "load.count", stats.loadCount()));
+            metrics.add(new Metric<Number>(prefix + "coalesced.count", coalescedCount));
+            metrics.add(new Metric<Number>(prefix + "load.time.avg", stats.averageLoadPenalty() / 1000000d));
+            if (offHeapTier != null) {
+                long hits = offHeapTier.getHitCount();
+                long lookups = hits + offHeapTier.getMissCount();
+                metrics.add(new Metric<Number>(prefix + "offHeap.hit.count", hits));
+                metrics.add(new Metric<Number>(prefix + "offHeap.miss.count", offHeapTier.getMissCount()));
+                if (lookups > 0)
+                    metrics.add(new Metric<Number>(prefix + "offHeap.hit.ratio", (double) hits / lookups));
+                metrics.add(new Metric<Number>(prefix + "offHeap.demotion.count", offHeapTier.getDemotionCount()));
+            }
+            return metrics;
+        }
+    }
+}
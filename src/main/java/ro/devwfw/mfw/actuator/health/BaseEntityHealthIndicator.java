@@ -1,19 +1,25 @@
 package ro.devwfw.mfw.actuator.health;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthAggregator;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 import ro.devwfw.mfw.model.BaseEntity;
-import ro.devwfw.mfw.model.DemoEntity;
 import ro.devwfw.mfw.service.BaseService;
 import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapper;
 
-import java.util.Collection;
-import java.util.HashMap;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * The BaseEntityHealthIndicator is a custom Spring Boot Actuator HealthIndicator
@@ -21,6 +27,12 @@ import java.util.stream.Collectors;
  * 'health' endpoint is invoked. Each HealthIndicator class assesses some
  * portion of the application's health, returing a Health object which indicates
  * that status and, optionally, additional health attributes.
+ * <p>
+ * The entity counts are refreshed in the background every
+ * <code>health.entities.refreshInterval</code> milliseconds, so a probe only
+ * returns the last snapshot and never touches the database. A refresh that
+ * takes longer than <code>health.entities.timeout</code> milliseconds reports
+ * the indicator DOWN.
  *
  * @author LaurentiuM
  * @version createdOn: 12/20/15
@@ -41,13 +53,80 @@ public class BaseEntityHealthIndicator implements HealthIndicator {
     private PathVariableToClassMapper pathVariableToClassMapper;
 
     /**
-     * @return entityMap containing the total number of persistent entities group by class
+     * The time in milliseconds between two refreshes of the snapshot.
+     */
+    @Value("${health.entities.refreshInterval:30000}")
+    private long refreshInterval;
+
+    /**
+     * The time in milliseconds a refresh may take before the indicator is
+     * reported DOWN.
+     */
+    @Value("${health.entities.timeout:5000}")
+    private long timeout;
+
+    /**
+     * The executor running the refresh schedule and, on a second thread, the
+     * count queries, so they can be abandoned on timeout.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * The last computed health.
+     */
+    private volatile Health snapshot = Health.unknown().build();
+
+    @PostConstruct
+    private void scheduleRefresh() {
+        executor = Executors.newScheduledThreadPool(2,
+                new ThreadFactoryBuilder().setNameFormat("entity-health-%d").setDaemon(true).build());
+        executor.scheduleWithFixedDelay(this::refresh, 0, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Counts the persistent entities of every mapped class and replaces the
+     * snapshot.
+     */
+    private void refresh() {
+        Future<Map<String, Long>> counts = executor.submit(this::countEntities);
+        try {
+            snapshot = Health.up()
+                    .withDetail("entityMap", counts.get(timeout, TimeUnit.MILLISECONDS))
+                    .withDetail("checkedAt", new Date())
+                    .build();
+        } catch (TimeoutException e) {
+            counts.cancel(true);
+            snapshot = Health.down()
+                    .withDetail("error", "Counting entities took longer than " + timeout + " ms")
+                    .withDetail("checkedAt", new Date())
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            snapshot = Health.down(e).withDetail("checkedAt", new Date()).build();
+        }
+    }
+
+    private Map<String, Long> countEntities() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Class<? extends BaseEntity>> entry : pathVariableToClassMapper.getMappings().entrySet()) {
+            map.put(entry.getKey(), baseService.count(entry.getValue()));
+        }
+        return map;
+    }
+
+    /**
+     * @return entityMap containing the total number of persistent entities group by class,
+     * as of the last refresh
      */
     @Override
     public Health health() {
-        Map<String, Class<? extends BaseEntity>> entityMap = pathVariableToClassMapper.getMappings();
-        Map<String, Integer> map = entityMap.entrySet().stream().collect(Collectors.toMap(entry -> entry.getKey(), entry -> baseService.findAll(entry.getValue()).size()));
-        return Health.up().withDetail("entityMap", map).build();
+        return snapshot;
     }
 
 }
@@ -0,0 +1,29 @@
+package ro.devwfw.mfw.actuator.health;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+import ro.devwfw.mfw.cache.EntityCacheWarmer;
+
+/**
+ * The CacheWarmupHealthIndicator reports the application OUT_OF_SERVICE until
+ * the first warm-up of the entity cache completed, so a load balancer checking
+ * the Actuator 'health' endpoint only sends traffic to a warm instance.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private EntityCacheWarmer entityCacheWarmer;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = entityCacheWarmer.isWarm() ? Health.up() : Health.outOfService();
+        return builder.withDetail("warmup", entityCacheWarmer.getStatus()).build();
+    }
+
+}
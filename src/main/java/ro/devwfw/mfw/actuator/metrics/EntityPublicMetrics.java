@@ -0,0 +1,112 @@
+package ro.devwfw.mfw.actuator.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+import ro.devwfw.mfw.cache.EntityCacheManager;
+import ro.devwfw.mfw.cache.EntityResponseCache;
+import ro.devwfw.mfw.cache.OffHeapEntityStore;
+import ro.devwfw.mfw.datasource.ReplicaRoutingDataSource;
+import ro.devwfw.mfw.metrics.EntityMetrics;
+import ro.devwfw.mfw.metrics.EntityOperation;
+import ro.devwfw.mfw.metrics.OperationMeter;
+import ro.devwfw.mfw.web.component.EntityRequestExecutor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * The EntityPublicMetrics exposes the {@link EntityMetrics} through the
+ * Actuator 'metrics' endpoint. For every entity and operation that was called
+ * it provides:
+ * <ul>
+ * <li>entity.{entityName}.{operation}.count - the number of calls
+ * <li>entity.{entityName}.{operation}.errors - the number of failed calls
+ * <li>entity.{entityName}.{operation}.time.{mean,p50,p99,max} - the call latency in milliseconds
+ * <li>entity.{entityName}.{operation}.db.{mean,p50,p99,max} - the database round trip latency in milliseconds
+ * </ul>
+ * The cache hit ratios are provided per region as cache.{entityName}.*. The
+ * {@link EntityResponseCache} is provided as
+ * cache.responses.{hit.count,miss.count,eviction.count,size,bytes}. The
+ * {@link OffHeapEntityStore} of the off-heap tiers, when enabled, is provided
+ * as cache.offHeap.{capacity,used,size,eviction.count}.
+ * <p>
+ * The load of the {@link EntityRequestExecutor} is provided as
+ * entity.requests.{active,queued,rejected,timedOut}.
+ * <p>
+ * The routing of the {@link ReplicaRoutingDataSource} is provided as
+ * datasource.routing.replicas.{count,healthy} and
+ * datasource.routing.{replicaReads,primaryReads,writes,fallbacks}.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@Component
+public class EntityPublicMetrics implements PublicMetrics {
+
+    @Autowired
+    private EntityMetrics entityMetrics;
+
+    @Autowired
+    private EntityRequestExecutor entityRequestExecutor;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private EntityResponseCache entityResponseCache;
+
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        Collection<Metric<?>> metrics = new ArrayList<Metric<?>>();
+        metrics.add(new Metric<Number>("entity.requests.active", entityRequestExecutor.getActiveCount()));
+        metrics.add(new Metric<Number>("entity.requests.queued", entityRequestExecutor.getQueueSize()));
+        metrics.add(new Metric<Number>("entity.requests.rejected", entityRequestExecutor.getRejectedCount()));
+        metrics.add(new Metric<Number>("entity.requests.timedOut", entityRequestExecutor.getTimedOutCount()));
+        metrics.add(new Metric<Number>("datasource.routing.replicas.count", replicaRoutingDataSource.getReplicaCount()));
+        metrics.add(new Metric<Number>("datasource.routing.replicas.healthy", replicaRoutingDataSource.getHealthyReplicaCount()));
+        metrics.add(new Metric<Number>("datasource.routing.replicaReads", replicaRoutingDataSource.getReplicaReads()));
+        metrics.add(new Metric<Number>("datasource.routing.primaryReads", replicaRoutingDataSource.getPrimaryReads()));
+        metrics.add(new Metric<Number>("datasource.routing.writes", replicaRoutingDataSource.getWrites()));
+        metrics.add(new Metric<Number>("datasource.routing.fallbacks", replicaRoutingDataSource.getFallbacks()));
+        metrics.add(new Metric<Number>("cache.responses.hit.count", entityResponseCache.getHitCount()));
+        metrics.add(new Metric<Number>("cache.responses.miss.count", entityResponseCache.getMissCount()));
+        metrics.add(new Metric<Number>("cache.responses.eviction.count", entityResponseCache.getEvictionCount()));
+        metrics.add(new Metric<Number>("cache.responses.size", entityResponseCache.getSize()));
+        metrics.add(new Metric<Number>("cache.responses.bytes", entityResponseCache.getBytes()));
+        OffHeapEntityStore offHeapStore = entityCacheManager.getOffHeapStore();
+        if (offHeapStore != null) {
+            metrics.add(new Metric<Number>("cache.offHeap.capacity", offHeapStore.getCapacity()));
+            metrics.add(new Metric<Number>("cache.offHeap.used", offHeapStore.getUsedBytes()));
+            metrics.add(new Metric<Number>("cache.offHeap.size", offHeapStore.getSize()));
+            metrics.add(new Metric<Number>("cache.offHeap.eviction.count", offHeapStore.getEvictionCount()));
+        }
+        for (String entityName : entityMetrics.getEntityNames()) {
+            for (EntityOperation operation : EntityOperation.values()) {
+                OperationMeter meter = entityMetrics.meter(entityName, operation);
+                if (meter.getCalls() == 0)
+                    continue;
+                String prefix = "entity." + entityName + "." + operation.getMetricName() + ".";
+                metrics.add(new Metric<Number>(prefix + "count", meter.getCalls()));
+                metrics.add(new Metric<Number>(prefix + "errors", meter.getErrors()));
+                addLatency(metrics, prefix + "time.", meter.getLatency());
+                Histogram dbLatency = meter.getDbLatency();
+                if (dbLatency.getTotalCount() > 0)
+                    addLatency(metrics, prefix + "db.", dbLatency);
+            }
+        }
+        return metrics;
+    }
+
+    private void addLatency(Collection<Metric<?>> metrics, String prefix, Histogram histogram) {
+        metrics.add(new Metric<Number>(prefix + "mean", histogram.getMean() / 1000d));
+        metrics.add(new Metric<Number>(prefix + "p50", histogram.getValueAtPercentile(50) / 1000d));
+        metrics.add(new Metric<Number>(prefix + "p99", histogram.getValueAtPercentile(99) / 1000d));
+        metrics.add(new Metric<Number>(prefix + "max", histogram.getMaxValue() / 1000d));
+    }
+}
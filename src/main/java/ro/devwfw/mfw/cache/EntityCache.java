@@ -0,0 +1,270 @@
+package ro.devwfw.mfw.cache;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import ro.devwfw.mfw.model.BaseEntity;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * The EntityCache is the cache region of a single entity type annotated with
+ * {@link ro.devwfw.mfw.utils.annotations.EntityName}. Entries are keyed by the
+ * primary key identifier, the region itself is bound to the entity class so two
+ * entity types never share a slot.
+ * <p>
+ * A miss is loaded by the caller, see {@link #get(Object, Callable)}, so the
+ * database is read by the service method, in its transaction, and the load
+ * time is recorded in the statistics. The region's loader only refreshes the
+ * entries after write. Ids which do not exist are not cached. The Spring
+ * {@link #get(Object)} does not load: a @Cacheable method runs on a miss.
+ * <p>
+ * Concurrent misses of the same id are coalesced: the Guava cache runs a
+ * single load and the other readers wait for its value, locking only the
+ * segment of the key, see concurrencyLevel in the region spec.
+ * <p>
+ * A region may have an {@link OffHeapEntityTier} behind the Guava cache,
+ * holding the entities it evicted for its size. A miss looks there before
+ * the database and {@link #getIfPresent} moves the entities found there back
+ * to the Guava cache. The evictions apply to both tiers.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityCache implements Cache {
+
+    /**
+     * the name of the region, the entity name from @EntityName
+     */
+    private final String name;
+
+    /**
+     * the class of the entities stored in this region
+     */
+    private final Class<? extends BaseEntity> entityClass;
+
+    /**
+     * the Guava cache holding the entities by id
+     */
+    private final LoadingCache<Object, BaseEntity> cache;
+
+    /**
+     * told about every eviction, with a <code>null</code> key when the region
+     * is cleared, so the other instances can evict it too
+     */
+    private final BiConsumer<String, Object> evictionListener;
+
+    /**
+     * the number of background refreshes, counted by the loader, they are
+     * loads without a miss
+     */
+    private final LongAdder refreshes;
+
+    /**
+     * the off-heap tier behind the Guava cache, <code>null</code> if none
+     */
+    private final OffHeapEntityTier offHeapTier;
+
+    public EntityCache(String name, Class<? extends BaseEntity> entityClass, LoadingCache<Object, BaseEntity> cache) {
+        this(name, entityClass, cache, null, new LongAdder(), null);
+    }
+
+    public EntityCache(String name, Class<? extends BaseEntity> entityClass, LoadingCache<Object, BaseEntity> cache,
+                       BiConsumer<String, Object> evictionListener, LongAdder refreshes, OffHeapEntityTier offHeapTier) {
+        this.name = name;
+        this.entityClass = entityClass;
+        this.cache = cache;
+        this.evictionListener = evictionListener;
+        this.refreshes = refreshes;
+        this.offHeapTier = offHeapTier;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public LoadingCache<Object, BaseEntity> getNativeCache() {
+        return cache;
+    }
+
+    /**
+     * @return the class of the entities stored in this region
+     */
+    public Class<? extends BaseEntity> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return the off-heap tier behind the Guava cache, <code>null</code> if none
+     */
+    public OffHeapEntityTier getOffHeapTier() {
+        return offHeapTier;
+    }
+
+    /**
+     * @return a snapshot of the hit, miss, eviction and load statistics of
+     * the on-heap tier
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Every miss either runs a load or waits for the load of another reader,
+     * so the misses which did not load were coalesced.
+     *
+     * @return the number of misses answered by the load of another reader
+     */
+    public long getCoalescedCount() {
+        CacheStats stats = cache.stats();
+        return Math.max(0, stats.missCount() - (stats.loadCount() - refreshes.sum()));
+    }
+
+    /**
+     * @return the approximate number of entries in the on-heap tier
+     */
+    public long getSize() {
+        return cache.size();
+    }
+
+    /**
+     * Looks up an entry without loading it from the database, moving it from
+     * the off-heap tier if found there. Only a hit is recorded in the
+     * statistics, the miss is recorded by the load which follows it.
+     *
+     * @param key the id of the entity
+     * @return the cached entity or <code>null</code>
+     */
+    public BaseEntity getIfPresent(Object key) {
+        if (cache.asMap().containsKey(key))
+            return cache.getIfPresent(key);
+        if (offHeapTier == null)
+            return null;
+        // a miss is counted by the load which follows it
+        BaseEntity baseEntity = offHeapTier.take(key, false);
+        if (baseEntity == null)
+            return null;
+        BaseEntity existing = cache.asMap().putIfAbsent(key, baseEntity);
+        return existing != null ? existing : baseEntity;
+    }
+
+    /**
+     * Looks up an entry, loading a miss with the given loader on the calling
+     * thread. Concurrent misses of the same id wait for a single load, which
+     * takes the entity from the off-heap tier when it is there.
+     *
+     * @param key    the id of the entity
+     * @param loader reads the entity from the database, returns
+     *               <code>null</code> if it does not exist
+     * @return the entity or <code>null</code> if it does not exist, which is
+     * not cached
+     */
+    public BaseEntity get(Object key, Callable<? extends BaseEntity> loader) {
+        try {
+            return cache.get(key, () -> {
+                if (offHeapTier != null) {
+                    BaseEntity baseEntity = offHeapTier.take(key, true);
+                    if (baseEntity != null)
+                        return baseEntity;
+                }
+                return loader.call();
+            });
+        } catch (CacheLoader.InvalidCacheLoadException e) {
+            // the entity does not exist, nothing is cached
+            return null;
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw new UncheckedExecutionException(e.getCause());
+        }
+    }
+
+    /**
+     * Looks up an entry without loading it, so a @Cacheable method runs on a
+     * miss and its result is put in the region.
+     *
+     * @param key the id of the entity
+     * @return the cached entity or <code>null</code>
+     */
+    @Override
+    public ValueWrapper get(Object key) {
+        BaseEntity baseEntity = getIfPresent(key);
+        return baseEntity != null ? new SimpleValueWrapper(baseEntity) : null;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valueWrapper = get(key);
+        Object value = valueWrapper != null ? valueWrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null)
+            cache.invalidate(key);
+        else
+            cache.put(key, entityClass.cast(value));
+        if (offHeapTier != null)
+            offHeapTier.remove(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (value == null)
+            return get(key);
+        BaseEntity existing = cache.asMap().putIfAbsent(key, entityClass.cast(value));
+        if (existing != null)
+            return new SimpleValueWrapper(existing);
+        if (offHeapTier != null)
+            offHeapTier.remove(key);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.invalidate(key);
+        if (offHeapTier != null)
+            offHeapTier.remove(key);
+        if (evictionListener != null)
+            evictionListener.accept(name, key);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+        if (offHeapTier != null)
+            offHeapTier.remove(null);
+        if (evictionListener != null)
+            evictionListener.accept(name, null);
+    }
+
+    /**
+     * Evicts an entry evicted by another instance, without telling the
+     * eviction listener.
+     *
+     * @param key the id of the entity, <code>null</code> for all the entries
+     */
+    public void invalidate(Object key) {
+        if (key == null)
+            cache.invalidateAll();
+        else
+            cache.invalidate(key);
+        if (offHeapTier != null)
+            offHeapTier.remove(key);
+    }
+}
@@ -0,0 +1,302 @@
+package ro.devwfw.mfw.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ro.devwfw.mfw.cache.invalidation.CacheInvalidation;
+import ro.devwfw.mfw.cache.invalidation.CacheInvalidationBus;
+import ro.devwfw.mfw.datasource.RoutingContext;
+import ro.devwfw.mfw.metrics.EntityMetrics;
+import ro.devwfw.mfw.metrics.EntityOperation;
+import ro.devwfw.mfw.metrics.OperationMeter;
+import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.repository.BaseRepository;
+import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapper;
+import ro.devwfw.mfw.utils.registry.EntityMetadata;
+import ro.devwfw.mfw.utils.registry.EntityRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.persistence.metamodel.Attribute;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The EntityCacheManager creates one {@link EntityCache} region for every entity
+ * mapped by the {@link PathVariableToClassMapper}. Each region is bounded and
+ * expired according to its spec in {@link EntityCacheProperties} and always
+ * records statistics.
+ * <p>
+ * The evictions are published on the {@link CacheInvalidationBus} and the
+ * evictions published by the other instances are applied to the regions.
+ * <p>
+ * The regions listed in entityCache.offHeap.regions get an
+ * {@link OffHeapEntityTier} in a shared {@link OffHeapEntityStore}: the
+ * entities evicted for the size of the region are moved there and a miss
+ * looks there before the database. A refresh always reads the database.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityCacheManager implements CacheManager {
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    /**
+     * The PathVariableToClassMapper provides the entity types to be cached.
+     */
+    @Autowired
+    private PathVariableToClassMapper pathVariableToClassMapper;
+
+    /**
+     * The repository used to refresh the entries, the misses are loaded by
+     * the callers of {@link EntityCache#get(Object, java.util.concurrent.Callable)}.
+     */
+    @Autowired
+    private BaseRepository baseRepository;
+
+    /**
+     * The loads are measured as findOne database round trips.
+     */
+    @Autowired
+    private EntityMetrics entityMetrics;
+
+    /**
+     * The configuration of the regions.
+     */
+    @Autowired
+    private EntityCacheProperties entityCacheProperties;
+
+    /**
+     * Carries the evictions to and from the other instances.
+     */
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * Holds the encoded responses of the entities, evicted with them.
+     */
+    @Autowired
+    private EntityResponseCache entityResponseCache;
+
+    /**
+     * The EntityRegistry provides the readers and writers of the off-heap tiers.
+     */
+    @Autowired
+    private EntityRegistry entityRegistry;
+
+    /**
+     * The metamodel tells which entity types have associations.
+     */
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * the store of the off-heap tiers, <code>null</code> if disabled
+     */
+    private OffHeapEntityStore offHeapStore;
+
+    /**
+     * identifies the invalidations published by this instance
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * regions by entity name
+     */
+    private Map<String, EntityCache> cachesByName;
+
+    /**
+     * regions by entity class
+     */
+    private Map<Class<?>, EntityCache> cachesByClass;
+
+    /**
+     * executor reloading entries after refreshAfterWrite, so readers keep
+     * getting the old value instead of waiting for the reload
+     */
+    private ExecutorService refreshExecutor;
+
+    /**
+     * Creates a region for every mapped entity type.
+     */
+    @PostConstruct
+    private void createCaches() {
+        refreshExecutor = Executors.newFixedThreadPool(entityCacheProperties.getRefreshThreads(),
+                new ThreadFactoryBuilder().setNameFormat("entity-cache-refresh-%d").setDaemon(true).build());
+
+        EntityCacheProperties.OffHeap offHeap = entityCacheProperties.getOffHeap();
+        if (offHeap.getCapacity() > 0) {
+            offHeapStore = new OffHeapEntityStore(offHeap.getCapacity(), offHeap.getBlockSize(),
+                    offHeap.getSegments(), offHeap.getExpireAfterWrite());
+            logger.info("- createCaches offHeap capacity:{} regions:{}", offHeapStore.getCapacity(), offHeap.getRegions());
+        }
+
+        Map<String, EntityCache> byName = new HashMap<>();
+        Map<Class<?>, EntityCache> byClass = new HashMap<>();
+        for (Map.Entry<String, Class<? extends BaseEntity>> entry : pathVariableToClassMapper.getMappings().entrySet()) {
+            EntityCache cache = createCache(entry.getKey(), entry.getValue());
+            byName.put(entry.getKey(), cache);
+            byClass.put(entry.getValue(), cache);
+        }
+        cachesByName = Collections.unmodifiableMap(byName);
+        cachesByClass = Collections.unmodifiableMap(byClass);
+        cacheInvalidationBus.subscribe(this::onInvalidation);
+    }
+
+    private EntityCache createCache(String name, final Class<? extends BaseEntity> clazz) {
+        String spec = entityCacheProperties.getSpec(name);
+        logger.info("- createCache name:{} spec:{}", name, spec);
+
+        final OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.FIND_ONE);
+        final LongAdder refreshes = new LongAdder();
+        final OffHeapEntityTier offHeapTier = createOffHeapTier(name, clazz);
+        CacheLoader<Object, BaseEntity> loader = new CacheLoader<Object, BaseEntity>() {
+            @Override
+            public BaseEntity load(Object id) {
+                return loadFromDatabase(id);
+            }
+
+            @Override
+            public ListenableFuture<BaseEntity> reload(Object id, BaseEntity oldValue) throws Exception {
+                refreshes.increment();
+                return Futures.immediateFuture(loadFromDatabase(id));
+            }
+
+            private BaseEntity loadFromDatabase(Object id) {
+                long start = System.nanoTime();
+                // a lagging replica would leave a stale entity in the cache
+                BaseEntity baseEntity = RoutingContext.onPrimary(() -> baseRepository.findOne(clazz, (Long) id));
+                // a load or a refresh is a round trip of the findOne calls, not a call
+                meter.recordDb(System.nanoTime() - start);
+                return baseEntity;
+            }
+        };
+
+        CacheBuilder<Object, Object> builder = CacheBuilder.from(spec).recordStats();
+        if (offHeapTier != null) {
+            builder = builder.removalListener((RemovalNotification<Object, Object> notification) -> {
+                // only the entities evicted for the size are moved, the others are stale
+                if (notification.getCause() == RemovalCause.SIZE)
+                    offHeapTier.put(notification.getKey(), (BaseEntity) notification.getValue());
+            });
+        }
+        return new EntityCache(name, clazz, builder.build(CacheLoader.asyncReloading(loader, refreshExecutor)),
+                this::publishEviction, refreshes, offHeapTier);
+    }
+
+    /**
+     * Creates the off-heap tier of a region listed in entityCache.offHeap.regions.
+     *
+     * @return the tier or <code>null</code> if the region has none
+     */
+    private OffHeapEntityTier createOffHeapTier(String name, Class<? extends BaseEntity> clazz) {
+        if (offHeapStore == null || !entityCacheProperties.getOffHeap().getRegions().contains(name))
+            return null;
+        boolean associations = entityManagerFactory.getMetamodel().entity(clazz).getAttributes().stream()
+                .anyMatch(Attribute::isAssociation);
+        if (associations) {
+            logger.warn("- createOffHeapTier name:{} has associations, no off-heap tier", name);
+            return null;
+        }
+        EntityMetadata<? extends BaseEntity> metadata = entityRegistry.getMetadata(clazz);
+        return new OffHeapEntityTier(name, offHeapStore, metadata.getReader(), metadata.getWriter());
+    }
+
+    /**
+     * Publishes an eviction on the bus once the current transaction, if any,
+     * committed, so the other instances do not reload the entity before the
+     * change is visible. The entry is evicted from the local region again
+     * after the commit, as a findOne running before it may have reloaded the
+     * row as it was.
+     */
+    private void publishEviction(String region, Object key) {
+        final EntityCache cache = cachesByName.get(region);
+        entityResponseCache.evict(cache.getEntityClass(), key);
+        final CacheInvalidation invalidation = new CacheInvalidation(instanceId, region, (Long) key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(key);
+                    entityResponseCache.evict(cache.getEntityClass(), key);
+                    cacheInvalidationBus.publish(invalidation);
+                }
+            });
+        } else {
+            cacheInvalidationBus.publish(invalidation);
+        }
+    }
+
+    /**
+     * Evicts the entries evicted by the other instances.
+     */
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (instanceId.equals(invalidation.getOrigin()))
+            return;
+        EntityCache cache = cachesByName.get(invalidation.getRegion());
+        if (cache != null) {
+            logger.debug("- onInvalidation {}", invalidation);
+            cache.invalidate(invalidation.getId());
+            entityResponseCache.evict(cache.getEntityClass(), invalidation.getId());
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return cachesByName.get(name);
+    }
+
+    /**
+     * Returns the region of an entity type.
+     *
+     * @param clazz the class of the entity
+     * @return the region or <code>null</code> if the class is not mapped
+     */
+    public EntityCache getCache(Class<?> clazz) {
+        return cachesByClass.get(clazz);
+    }
+
+    /**
+     * @return the store of the off-heap tiers, <code>null</code> if disabled
+     */
+    public OffHeapEntityStore getOffHeapStore() {
+        return offHeapStore;
+    }
+
+    /**
+     * @return all the regions
+     */
+    public Collection<EntityCache> getCaches() {
+        return cachesByName.values();
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return cachesByName.keySet();
+    }
+}
@@ -0,0 +1,323 @@
+package ro.devwfw.mfw.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The EntityCacheProperties holds the configuration of the entity cache regions.
+ * Every region is built from a Guava CacheBuilderSpec, e.g.
+ * <code>maximumSize=10000,expireAfterWrite=10m,refreshAfterWrite=5m</code>.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@ConfigurationProperties(prefix = "entityCache")
+public class EntityCacheProperties {
+
+    /**
+     * The implementations of the CacheInvalidationBus.
+     */
+    public enum Bus {
+        /**
+         * the invalidations stay in the JVM, for a single instance
+         */
+        LOOPBACK,
+        /**
+         * the invalidations are sent to a UDP multicast group
+         */
+        MULTICAST
+    }
+
+    /**
+     * The configuration of the CacheInvalidationBus, under entityCache.invalidation.
+     */
+    public static class Invalidation {
+
+        private Bus bus = Bus.LOOPBACK;
+
+        /**
+         * the multicast group joined by all the instances
+         */
+        private String group = "239.255.27.1";
+
+        private int port = 45588;
+
+        /**
+         * the time to live of the multicast datagrams
+         */
+        private int timeToLive = 1;
+
+        /**
+         * the name of the network interface the group is joined on, by
+         * default the first one supporting multicast
+         */
+        private String networkInterface;
+
+        public Bus getBus() {
+            return bus;
+        }
+
+        public void setBus(Bus bus) {
+            this.bus = bus;
+        }
+
+        public String getGroup() {
+            return group;
+        }
+
+        public void setGroup(String group) {
+            this.group = group;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public int getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(int timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public String getNetworkInterface() {
+            return networkInterface;
+        }
+
+        public void setNetworkInterface(String networkInterface) {
+            this.networkInterface = networkInterface;
+        }
+    }
+
+    /**
+     * The configuration of the EntityResponseCache, under entityCache.response.
+     */
+    public static class Response {
+
+        private boolean enabled = true;
+
+        /**
+         * the bound of the encoded responses held, in bytes
+         */
+        private long maxBytes = 64L * 1024 * 1024;
+
+        /**
+         * <code>true</code> to also hold the gzip encoding, for the clients
+         * accepting it
+         */
+        private boolean gzip = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public boolean isGzip() {
+            return gzip;
+        }
+
+        public void setGzip(boolean gzip) {
+            this.gzip = gzip;
+        }
+    }
+
+    /**
+     * The configuration of the off-heap tier of the regions, under
+     * entityCache.offHeap.
+     */
+    public static class OffHeap {
+
+        /**
+         * the bytes allocated outside the heap, 0 disables the tier
+         */
+        private long capacity = 64L * 1024 * 1024;
+
+        /**
+         * the bytes of a block, the unit of allocation
+         */
+        private int blockSize = 256;
+
+        /**
+         * the number of segments, each one with its own lock
+         */
+        private int segments = 16;
+
+        /**
+         * the milliseconds an entity is kept, 0 for ever
+         */
+        private long expireAfterWrite = 600000;
+
+        /**
+         * the regions with an off-heap tier
+         */
+        private List<String> regions = new ArrayList<String>(Collections.singletonList("demo"));
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        public void setBlockSize(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        public int getSegments() {
+            return segments;
+        }
+
+        public void setSegments(int segments) {
+            this.segments = segments;
+        }
+
+        public long getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(long expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public List<String> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(List<String> regions) {
+            this.regions = regions;
+        }
+    }
+
+    /**
+     * the spec used by regions that are not configured explicitly
+     */
+    private String spec = "maximumSize=10000,expireAfterWrite=10m,refreshAfterWrite=5m,concurrencyLevel=16";
+
+    /**
+     * specs by entity name from @EntityName
+     */
+    private Map<String, String> regions = new HashMap<>();
+
+    /**
+     * the number of threads reloading entries after refreshAfterWrite
+     */
+    private int refreshThreads = 2;
+
+    /**
+     * the number of most recently updated entities loaded in every region by
+     * the warm-up, 0 disables the warm-up
+     */
+    private int warmupSize = 1000;
+
+    /**
+     * the number of regions loaded at the same time by the warm-up
+     */
+    private int warmupThreads = 2;
+
+    private Invalidation invalidation = new Invalidation();
+
+    private Response response = new Response();
+
+    private OffHeap offHeap = new OffHeap();
+
+    public String getSpec() {
+        return spec;
+    }
+
+    public void setSpec(String spec) {
+        this.spec = spec;
+    }
+
+    public Map<String, String> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(Map<String, String> regions) {
+        this.regions = regions;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    public void setRefreshThreads(int refreshThreads) {
+        this.refreshThreads = refreshThreads;
+    }
+
+    public int getWarmupSize() {
+        return warmupSize;
+    }
+
+    public void setWarmupSize(int warmupSize) {
+        this.warmupSize = warmupSize;
+    }
+
+    public int getWarmupThreads() {
+        return warmupThreads;
+    }
+
+    public void setWarmupThreads(int warmupThreads) {
+        this.warmupThreads = warmupThreads;
+    }
+
+    public Invalidation getInvalidation() {
+        return invalidation;
+    }
+
+    public void setInvalidation(Invalidation invalidation) {
+        this.invalidation = invalidation;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    public void setResponse(Response response) {
+        this.response = response;
+    }
+
+    public OffHeap getOffHeap() {
+        return offHeap;
+    }
+
+    public void setOffHeap(OffHeap offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Returns the spec of a region.
+     *
+     * @param entityName the entity name from @EntityName
+     * @return the region spec or the default spec
+     */
+    public String getSpec(String entityName) {
+        String regionSpec = regions.get(entityName);
+        return regionSpec != null ? regionSpec : spec;
+    }
+}
@@ -0,0 +1,43 @@
+package ro.devwfw.mfw.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+import ro.devwfw.mfw.model.BaseEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * The EntityCacheResolver selects the {@link EntityCache} region of the entity
+ * type a cached method operates on. The type is taken from the first argument
+ * which is either a Class or a BaseEntity. Methods without such an argument,
+ * like evictCache, operate on all the regions.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityCacheResolver implements CacheResolver {
+
+    private final EntityCacheManager entityCacheManager;
+
+    public EntityCacheResolver(EntityCacheManager entityCacheManager) {
+        this.entityCacheManager = entityCacheManager;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Object[] args = context.getArgs();
+        if (args.length == 0) {
+            return new ArrayList<>(entityCacheManager.getCaches());
+        }
+        Class<?> clazz = args[0] instanceof Class ? (Class<?>) args[0]
+                : args[0] instanceof BaseEntity ? args[0].getClass() : null;
+        EntityCache cache = clazz != null ? entityCacheManager.getCache(clazz) : null;
+        if (cache == null) {
+            throw new IllegalArgumentException("No entity cache region for " + context.getMethod() + " on " + clazz);
+        }
+        return Collections.singletonList(cache);
+    }
+}
@@ -0,0 +1,149 @@
+package ro.devwfw.mfw.cache;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import ro.devwfw.mfw.datasource.RoutingContext;
+import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.service.BaseService;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The EntityCacheWarmer loads the most recently updated entities of every
+ * {@link EntityCache} region, so a new instance does not send all the reads
+ * to the database until its cache is warm. It runs when the application is
+ * ready and on demand, loading at most
+ * <code>entityCache.warmupThreads</code> regions at the same time.
+ * <p>
+ * The loaded entries are refreshed ahead of their expiry by the
+ * refreshAfterWrite of the region spec, as long as they are read.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityCacheWarmer implements ApplicationListener<ApplicationReadyEvent> {
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
+    /**
+     * The BaseService reads the most recently updated entities.
+     */
+    @Autowired
+    private BaseService baseService;
+
+    @Autowired
+    private EntityCacheProperties entityCacheProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Set to <code>true</code> once the first warm-up completed.
+     */
+    private volatile boolean warm;
+
+    private volatile Date startedAt;
+
+    private volatile Date completedAt;
+
+    /**
+     * The number of entities loaded, or the error, by region name.
+     */
+    private final Map<String, Object> regions = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        warmUp();
+    }
+
+    /**
+     * Starts loading the regions in the background.
+     *
+     * @return <code>false</code> if a warm-up is already running
+     */
+    public boolean warmUp() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        final int size = entityCacheProperties.getWarmupSize();
+        logger.info("> warmUp size:{}", size);
+        startedAt = new Date();
+        regions.clear();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(entityCacheProperties.getWarmupThreads(),
+                new ThreadFactoryBuilder().setNameFormat("entity-cache-warmup-%d").setDaemon(true).build());
+        List<CompletableFuture<Void>> loads = new ArrayList<>();
+        if (size > 0) {
+            for (EntityCache cache : entityCacheManager.getCaches()) {
+                loads.add(CompletableFuture.runAsync(() -> load(cache, size), executor));
+            }
+        }
+        CompletableFuture.allOf(loads.toArray(new CompletableFuture[loads.size()])).whenComplete((result, e) -> {
+            executor.shutdown();
+            completedAt = new Date();
+            warm = true;
+            running.set(false);
+            logger.info("< warmUp regions:{} in {} ms", regions, completedAt.getTime() - startedAt.getTime());
+        });
+        return true;
+    }
+
+    private void load(EntityCache cache, int size) {
+        try {
+            List<? extends BaseEntity> recent = RoutingContext.onPrimary(
+                    () -> baseService.findRecent(cache.getEntityClass(), size));
+            for (BaseEntity baseEntity : recent) {
+                // an entry loaded by a reader in the meantime is as fresh
+                cache.putIfAbsent(baseEntity.getId(), baseEntity);
+            }
+            regions.put(cache.getName(), recent.size());
+        } catch (RuntimeException e) {
+            logger.warn("- warmUp region:{} failed", cache.getName(), e);
+            regions.put(cache.getName(), e.toString());
+        }
+    }
+
+    /**
+     * @return <code>true</code> once the first warm-up completed, even if some
+     * regions failed to load
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * @return <code>true</code> while a warm-up is running
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * @return the state of the last warm-up and the entities loaded per region
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("warm", warm);
+        status.put("running", running.get());
+        status.put("startedAt", startedAt);
+        status.put("completedAt", completedAt);
+        status.put("regions", new TreeMap<>(regions));
+        return status;
+    }
+}
@@ -0,0 +1,228 @@
+package ro.devwfw.mfw.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.utils.registry.EntityMetadata;
+import ro.devwfw.mfw.utils.registry.EntityRegistry;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The EntityResponseCache holds the encoded JSON of the entities read by id,
+ * so a hot entity found in its {@link EntityCache} region is written to the
+ * response without being serialized again. An entry is kept per entity class,
+ * id and encoding, identity or gzip, and is only used for the updtimestamp it
+ * was encoded from.
+ * <p>
+ * The entries are removed when the entity is evicted from its region, locally
+ * or by another instance, and the least recently used ones when the encoded
+ * bytes exceed <code>entityCache.response.maxBytes</code>.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityResponseCache {
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private EntityCacheProperties entityCacheProperties;
+
+    /**
+     * The EntityRegistry provides the writers of the entities.
+     */
+    @Autowired
+    private EntityRegistry entityRegistry;
+
+    /**
+     * The ObjectMapper writing the entities without a registered writer.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Cache<Key, Encoded> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The key of an encoded entity.
+     */
+    private static final class Key {
+
+        private final Class<?> entityClass;
+
+        private final Object id;
+
+        private final boolean gzip;
+
+        Key(Class<?> entityClass, Object id, boolean gzip) {
+            this.entityClass = entityClass;
+            this.id = id;
+            this.gzip = gzip;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return gzip == key.gzip && entityClass == key.entityClass && id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityClass, id, gzip);
+        }
+    }
+
+    /**
+     * The bytes encoded from a version of an entity.
+     */
+    private static final class Encoded {
+
+        private final long updtimestamp;
+
+        private final byte[] bytes;
+
+        Encoded(long updtimestamp, byte[] bytes) {
+            this.updtimestamp = updtimestamp;
+            this.bytes = bytes;
+        }
+    }
+
+    @PostConstruct
+    private void createCache() {
+        EntityCacheProperties.Response response = entityCacheProperties.getResponse();
+        logger.info("- createCache enabled:{} maxBytes:{} gzip:{}", response.isEnabled(), response.getMaxBytes(),
+                response.isGzip());
+        cache = CacheBuilder.newBuilder()
+                .maximumWeight(response.getMaxBytes())
+                .weigher((Key key, Encoded encoded) -> encoded.bytes.length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return <code>true</code> if the gzip encoding is held for the clients
+     * accepting it
+     */
+    public boolean isGzipEnabled() {
+        return entityCacheProperties.getResponse().isGzip();
+    }
+
+    /**
+     * Returns the JSON of an entity, encoded again only if the entity changed
+     * since it was last encoded.
+     *
+     * @param baseEntity the entity, as found in its region
+     * @param gzip       <code>true</code> for the gzip encoding of the JSON
+     * @return the encoded JSON
+     */
+    public byte[] get(BaseEntity baseEntity, boolean gzip) {
+        if (!entityCacheProperties.getResponse().isEnabled() || baseEntity.getId() == null
+                || baseEntity.getUpdtimestamp() == null) {
+            return encode(baseEntity, gzip);
+        }
+
+        Key key = new Key(baseEntity.getClass(), baseEntity.getId(), gzip);
+        long updtimestamp = baseEntity.getUpdtimestamp().getTime();
+        Encoded encoded = cache.getIfPresent(key);
+        if (encoded != null && encoded.updtimestamp == updtimestamp) {
+            hits.increment();
+            return encoded.bytes;
+        }
+
+        misses.increment();
+        byte[] bytes = encode(baseEntity, gzip);
+        cache.put(key, new Encoded(updtimestamp, bytes));
+        return bytes;
+    }
+
+    /**
+     * Removes the encodings of an entity.
+     *
+     * @param entityClass the class of the entity
+     * @param id          the id of the entity, <code>null</code> for all the
+     *                    entities of the class
+     */
+    public void evict(Class<?> entityClass, Object id) {
+        if (id == null) {
+            cache.asMap().keySet().removeIf(key -> key.entityClass == entityClass);
+            return;
+        }
+        cache.invalidate(new Key(entityClass, id, false));
+        cache.invalidate(new Key(entityClass, id, true));
+    }
+
+    private byte[] encode(BaseEntity baseEntity, boolean gzip) {
+        EntityMetadata<? extends BaseEntity> metadata = entityRegistry.getMetadata(baseEntity.getClass());
+        ObjectWriter writer = metadata != null ? metadata.getWriter() : objectMapper.writer();
+        try {
+            if (!gzip)
+                return writer.writeValueAsBytes(baseEntity);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                writer.writeValue(out, baseEntity);
+            }
+            return bytes.toByteArray();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode " + baseEntity, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the number of responses written from an encoding of the same version
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of responses encoded again
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of encodings removed to keep the bound in bytes
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * @return the number of encodings held
+     */
+    public long getSize() {
+        return cache.size();
+    }
+
+    /**
+     * @return the number of bytes held
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (Encoded encoded : cache.asMap().values()) {
+            bytes += encoded.bytes.length;
+        }
+        return bytes;
+    }
+}
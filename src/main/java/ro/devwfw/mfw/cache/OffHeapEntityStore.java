@@ -0,0 +1,310 @@
+package ro.devwfw.mfw.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The OffHeapEntityStore keeps encoded entities in direct ByteBuffers, outside
+ * the collected heap, so a working set larger than the heap can hold is kept
+ * without lengthening the GC pauses. Only the index, a few dozen bytes per
+ * entry, stays on the heap.
+ * <p>
+ * The capacity is split into segments, each one a direct ByteBuffer cut into
+ * blocks of blockSize bytes and guarded by its own lock. An entry takes as
+ * many blocks as its bytes need, not necessarily adjacent, so freed blocks
+ * are reused without compaction. When the blocks of a segment are exhausted
+ * its least recently used entries are evicted. An entry is also dropped when
+ * read after its expireAfterWrite.
+ * <p>
+ * The entries are keyed by the cache region and the id of the entity.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class OffHeapEntityStore {
+
+    /**
+     * the largest segment, a ByteBuffer is indexed by int
+     */
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final Segment[] segments;
+
+    private final int blockSize;
+
+    private final long expireAfterWrite;
+
+    /**
+     * @param capacity         the bytes allocated outside the heap
+     * @param blockSize        the bytes of a block, the unit of allocation
+     * @param segmentCount     the number of segments, more when the capacity
+     *                         needs them
+     * @param expireAfterWrite the milliseconds an entry is kept, 0 for ever
+     */
+    public OffHeapEntityStore(long capacity, int blockSize, int segmentCount, long expireAfterWrite) {
+        if (blockSize < 16)
+            throw new IllegalArgumentException("The block size must be at least 16 bytes, got " + blockSize);
+        if (capacity < (long) blockSize * segmentCount)
+            throw new IllegalArgumentException("The capacity " + capacity + " is less than a block per segment");
+        int count = (int) Math.max(segmentCount, (capacity + MAX_SEGMENT_BYTES - 1) / MAX_SEGMENT_BYTES);
+        int blocks = (int) (capacity / count / blockSize);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(blocks, blockSize);
+        }
+        this.blockSize = blockSize;
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    /**
+     * The key of an entry.
+     */
+    private static final class Key {
+
+        private final String region;
+
+        private final Object id;
+
+        Key(String region, Object id) {
+            this.region = region;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return region.equals(key.region) && id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(region, id);
+        }
+    }
+
+    /**
+     * The index of an entry, the blocks holding its bytes.
+     */
+    private static final class Entry {
+
+        private final int[] blocks;
+
+        private final int length;
+
+        private final long expiresAt;
+
+        Entry(int[] blocks, int length, long expiresAt) {
+            this.blocks = blocks;
+            this.length = length;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * A direct ByteBuffer with its free blocks and the index of its entries
+     * in access order.
+     */
+    private static final class Segment {
+
+        private final ByteBuffer buffer;
+
+        private final int blockSize;
+
+        private final int[] freeBlocks;
+
+        private int freeCount;
+
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long evictions;
+
+        Segment(int blocks, int blockSize) {
+            this.buffer = ByteBuffer.allocateDirect(blocks * blockSize);
+            this.blockSize = blockSize;
+            this.freeBlocks = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                freeBlocks[i] = blocks - 1 - i;
+            }
+            this.freeCount = blocks;
+        }
+
+        synchronized byte[] get(Key key, boolean remove) {
+            Entry entry = remove ? entries.remove(key) : entries.get(key);
+            if (entry == null)
+                return null;
+            if (entry.expiresAt != 0 && entry.expiresAt < System.currentTimeMillis()) {
+                if (!remove)
+                    entries.remove(key);
+                free(entry);
+                return null;
+            }
+            byte[] bytes = new byte[entry.length];
+            for (int i = 0, offset = 0; offset < entry.length; i++, offset += blockSize) {
+                buffer.position(entry.blocks[i] * blockSize);
+                buffer.get(bytes, offset, Math.min(blockSize, entry.length - offset));
+            }
+            if (remove)
+                free(entry);
+            return bytes;
+        }
+
+        synchronized boolean put(Key key, byte[] bytes, long expiresAt) {
+            int needed = Math.max(1, (bytes.length + blockSize - 1) / blockSize);
+            if (needed > freeBlocks.length)
+                return false;
+            Entry old = entries.remove(key);
+            if (old != null)
+                free(old);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (freeCount < needed) {
+                free(eldest.next());
+                eldest.remove();
+                evictions++;
+            }
+            int[] blocks = new int[needed];
+            for (int i = 0, offset = 0; i < needed; i++, offset += blockSize) {
+                blocks[i] = freeBlocks[--freeCount];
+                buffer.position(blocks[i] * blockSize);
+                buffer.put(bytes, offset, Math.min(blockSize, bytes.length - offset));
+            }
+            entries.put(key, new Entry(blocks, bytes.length, expiresAt));
+            return true;
+        }
+
+        synchronized void remove(Key key) {
+            Entry entry = entries.remove(key);
+            if (entry != null)
+                free(entry);
+        }
+
+        synchronized void removeRegion(String region) {
+            Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, Entry> entry = iterator.next();
+                if (entry.getKey().region.equals(region)) {
+                    free(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+
+        private void free(Entry entry) {
+            for (int block : entry.blocks) {
+                freeBlocks[freeCount++] = block;
+            }
+        }
+    }
+
+    private Segment segment(Key key) {
+        int hash = key.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    /**
+     * @param region the cache region
+     * @param id     the id of the entity
+     * @return the bytes of the entity or <code>null</code>
+     */
+    public byte[] get(String region, Object id) {
+        Key key = new Key(region, id);
+        return segment(key).get(key, false);
+    }
+
+    /**
+     * Removes an entry and returns its bytes.
+     *
+     * @param region the cache region
+     * @param id     the id of the entity
+     * @return the bytes of the entity or <code>null</code>
+     */
+    public byte[] take(String region, Object id) {
+        Key key = new Key(region, id);
+        return segment(key).get(key, true);
+    }
+
+    /**
+     * Stores the bytes of an entity, evicting the least recently used entries
+     * of its segment when needed.
+     *
+     * @param region the cache region
+     * @param id     the id of the entity
+     * @param bytes  the encoded entity
+     * @return <code>false</code> if the bytes are larger than a segment
+     */
+    public boolean put(String region, Object id, byte[] bytes) {
+        Key key = new Key(region, id);
+        long expiresAt = expireAfterWrite > 0 ? System.currentTimeMillis() + expireAfterWrite : 0;
+        return segment(key).put(key, bytes, expiresAt);
+    }
+
+    /**
+     * @param region the cache region
+     * @param id     the id of the entity, <code>null</code> for all the entries
+     *               of the region
+     */
+    public void remove(String region, Object id) {
+        if (id == null) {
+            for (Segment segment : segments) {
+                segment.removeRegion(region);
+            }
+            return;
+        }
+        Key key = new Key(region, id);
+        segment(key).remove(key);
+    }
+
+    /**
+     * @return the bytes allocated outside the heap
+     */
+    public long getCapacity() {
+        long capacity = 0;
+        for (Segment segment : segments) {
+            capacity += segment.buffer.capacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * @return the bytes of the blocks in use
+     */
+    public long getUsedBytes() {
+        long used = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                used += (long) (segment.freeBlocks.length - segment.freeCount) * blockSize;
+            }
+        }
+        return used;
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public long getSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of entries evicted to make room for others
+     */
+    public long getEvictionCount() {
+        long evictions = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                evictions += segment.evictions;
+            }
+        }
+        return evictions;
+    }
+}
@@ -0,0 +1,120 @@
+package ro.devwfw.mfw.cache;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ro.devwfw.mfw.model.BaseEntity;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The OffHeapEntityTier is the second tier of an {@link EntityCache} region,
+ * behind its on-heap Guava cache. The entities pushed out of the on-heap tier
+ * by its maximumSize are kept encoded as JSON in the {@link OffHeapEntityStore}
+ * and moved back to the on-heap tier when read, so an entity is held by one
+ * tier at a time.
+ * <p>
+ * The JSON of a lazy association which was not fetched is a reference to the
+ * id, which cannot be read back into a detached proxy, so only the entity
+ * types without associations get a second tier.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class OffHeapEntityTier {
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final String region;
+
+    private final OffHeapEntityStore store;
+
+    private final ObjectReader reader;
+
+    private final ObjectWriter writer;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder demotions = new LongAdder();
+
+    public OffHeapEntityTier(String region, OffHeapEntityStore store, ObjectReader reader, ObjectWriter writer) {
+        this.region = region;
+        this.store = store;
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    /**
+     * Removes an entity from this tier, to be moved to the on-heap tier.
+     *
+     * @param id        the id of the entity
+     * @param countMiss <code>true</code> to count a miss, <code>false</code>
+     *                  when a load follows the lookup and counts it
+     * @return the entity or <code>null</code>
+     */
+    public BaseEntity take(Object id, boolean countMiss) {
+        byte[] bytes = store.take(region, id);
+        if (bytes == null) {
+            if (countMiss)
+                misses.increment();
+            return null;
+        }
+        try {
+            BaseEntity baseEntity = reader.readValue(bytes);
+            hits.increment();
+            return baseEntity;
+        } catch (IOException e) {
+            logger.warn("- take region:{} id:{} cannot be decoded: {}", region, id, e.toString());
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Keeps an entity pushed out of the on-heap tier.
+     *
+     * @param id         the id of the entity
+     * @param baseEntity the entity
+     */
+    public void put(Object id, BaseEntity baseEntity) {
+        try {
+            if (store.put(region, id, writer.writeValueAsBytes(baseEntity)))
+                demotions.increment();
+        } catch (IOException e) {
+            logger.warn("- put region:{} id:{} cannot be encoded: {}", region, id, e.toString());
+        }
+    }
+
+    /**
+     * @param id the id of the entity, <code>null</code> for all the entities
+     *           of the region
+     */
+    public void remove(Object id) {
+        store.remove(region, id);
+    }
+
+    /**
+     * @return the number of entities found in this tier
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of entities looked up in this tier and not found
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entities moved to this tier from the on-heap tier
+     */
+    public long getDemotionCount() {
+        return demotions.sum();
+    }
+}
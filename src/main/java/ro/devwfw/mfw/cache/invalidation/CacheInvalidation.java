@@ -0,0 +1,68 @@
+package ro.devwfw.mfw.cache.invalidation;
+
+/**
+ * The CacheInvalidation is the message sent on the {@link CacheInvalidationBus}
+ * when an entry of an entity cache region is evicted, so the other instances
+ * evict it too. It is written as <code>origin region id</code>, the id is
+ * <code>*</code> when the whole region is cleared.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class CacheInvalidation {
+
+    /**
+     * the instance which evicted the entry, it ignores its own messages
+     */
+    private final String origin;
+
+    /**
+     * the entity name of the region
+     */
+    private final String region;
+
+    /**
+     * the id of the evicted entity, <code>null</code> for the whole region
+     */
+    private final Long id;
+
+    public CacheInvalidation(String origin, String region, Long id) {
+        this.origin = origin;
+        this.region = region;
+        this.id = id;
+    }
+
+    /**
+     * @param message a message written by {@link #toString()}
+     * @return The invalidation
+     * @throws IllegalArgumentException if the message is malformed
+     */
+    public static CacheInvalidation parse(String message) {
+        String[] parts = message.split(" ");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalidation " + message + " is not origin region id");
+        }
+        try {
+            return new CacheInvalidation(parts[0], parts[1], "*".equals(parts[2]) ? null : Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalidation " + message + " is not origin region id");
+        }
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return origin + " " + region + " " + (id != null ? id : "*");
+    }
+}
@@ -0,0 +1,29 @@
+package ro.devwfw.mfw.cache.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * The CacheInvalidationBus carries the evictions of the entity cache regions
+ * between the instances of the application, so an entity updated or deleted
+ * through one of them is not served stale by the others.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Sends an invalidation to every subscriber, the sender included.
+     *
+     * @param invalidation the evicted entry
+     */
+    void publish(CacheInvalidation invalidation);
+
+    /**
+     * Registers a subscriber receiving the invalidations published by every
+     * instance.
+     *
+     * @param subscriber called for every invalidation
+     */
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
@@ -0,0 +1,30 @@
+package ro.devwfw.mfw.cache.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The LoopbackCacheInvalidationBus delivers the invalidations to the
+ * subscribers of the same JVM on the publishing thread. It serves a single
+ * instance, or several cache managers started in one JVM by a test.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class LoopbackCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> subscriber : subscribers) {
+            subscriber.accept(invalidation);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,155 @@
+package ro.devwfw.mfw.cache.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The MulticastCacheInvalidationBus sends every invalidation as a UDP datagram
+ * to a multicast group joined by all the instances. Delivery is not
+ * guaranteed, a lost datagram leaves an entry stale until it expires by the
+ * expireAfterWrite of its region.
+ * <p>
+ * The group is joined on the network interface named by networkInterface, by
+ * default the first one up which supports multicast and is not the loopback,
+ * or the loopback if there is none.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class MulticastCacheInvalidationBus implements CacheInvalidationBus {
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final String group;
+
+    private final int port;
+
+    /**
+     * the number of routers a datagram may cross, 1 keeps it in the subnet
+     */
+    private final int timeToLive;
+
+    /**
+     * the name of the network interface the group is joined on, optional
+     */
+    private final String networkInterface;
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    private SocketAddress groupAddress;
+
+    private DatagramChannel channel;
+
+    private Thread receiver;
+
+    public MulticastCacheInvalidationBus(String group, int port, int timeToLive, String networkInterface) {
+        this.group = group;
+        this.port = port;
+        this.timeToLive = timeToLive;
+        this.networkInterface = networkInterface;
+    }
+
+    @PostConstruct
+    private void start() throws IOException {
+        InetAddress address = InetAddress.getByName(group);
+        NetworkInterface joinedInterface = findNetworkInterface();
+        logger.info("- start group:{} port:{} networkInterface:{}", group, port, joinedInterface.getName());
+        groupAddress = new InetSocketAddress(address, port);
+        channel = DatagramChannel.open(address.getAddress().length == 4 ? StandardProtocolFamily.INET : StandardProtocolFamily.INET6)
+                .setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                .bind(new InetSocketAddress(port))
+                .setOption(StandardSocketOptions.IP_MULTICAST_IF, joinedInterface)
+                .setOption(StandardSocketOptions.IP_MULTICAST_TTL, timeToLive)
+                // instances sharing a host receive the datagrams of each other
+                .setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        channel.join(address, joinedInterface);
+        receiver = new Thread(this::receive, "cache-invalidation-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @PreDestroy
+    private void stop() throws IOException {
+        channel.close();
+    }
+
+    private NetworkInterface findNetworkInterface() throws SocketException {
+        if (networkInterface != null && !networkInterface.isEmpty()) {
+            NetworkInterface named = NetworkInterface.getByName(networkInterface);
+            if (named == null) {
+                throw new SocketException("No network interface " + networkInterface);
+            }
+            return named;
+        }
+        NetworkInterface loopback = null;
+        for (NetworkInterface candidate : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+            if (!candidate.isUp()) {
+                continue;
+            }
+            if (candidate.isLoopback()) {
+                loopback = candidate;
+            } else if (candidate.supportsMulticast()) {
+                return candidate;
+            }
+        }
+        if (loopback == null) {
+            throw new SocketException("No network interface is up");
+        }
+        return loopback;
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        byte[] message = invalidation.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            channel.send(ByteBuffer.wrap(message), groupAddress);
+        } catch (IOException e) {
+            logger.warn("- publish {} failed", invalidation, e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        while (channel.isOpen()) {
+            SocketAddress sender = null;
+            try {
+                buffer.clear();
+                sender = channel.receive(buffer);
+                buffer.flip();
+                CacheInvalidation invalidation = CacheInvalidation.parse(
+                        new String(buffer.array(), 0, buffer.limit(), StandardCharsets.UTF_8));
+                for (Consumer<CacheInvalidation> subscriber : subscribers) {
+                    subscriber.accept(invalidation);
+                }
+            } catch (IOException e) {
+                if (channel.isOpen())
+                    logger.warn("- receive failed", e);
+            } catch (RuntimeException e) {
+                logger.warn("- invalidation from {} ignored", sender, e);
+            }
+        }
+    }
+}
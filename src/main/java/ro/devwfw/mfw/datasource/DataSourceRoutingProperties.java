@@ -0,0 +1,112 @@
+package ro.devwfw.mfw.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The DataSourceRoutingProperties holds the replicas read by the read-only
+ * transactions, e.g.
+ * <code>dataSourceRouting.replicas[0].url=jdbc:hsqldb:hsql://replica1/mfw</code>.
+ * The replica pools are configured as the primary one, by the spring.datasource
+ * pool settings. Without replicas everything is read from the primary.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@ConfigurationProperties(prefix = "dataSourceRouting")
+public class DataSourceRoutingProperties {
+
+    /**
+     * A replica of the primary database, under dataSourceRouting.replicas[i].
+     */
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * the user name, the one of the primary if not set
+         */
+        private String username;
+
+        /**
+         * the password, the one of the primary if not set
+         */
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * milliseconds after a write during which the session reads from the
+     * primary, longer than the replication lag
+     */
+    private long readYourWritesWindow = 5000;
+
+    /**
+     * milliseconds between two checks of the replicas
+     */
+    private long healthCheckInterval = 5000;
+
+    /**
+     * seconds a replica has to validate a connection
+     */
+    private int healthCheckTimeout = 2;
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public long getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public void setReadYourWritesWindow(long readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public long getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(long healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public int getHealthCheckTimeout() {
+        return healthCheckTimeout;
+    }
+
+    public void setHealthCheckTimeout(int healthCheckTimeout) {
+        this.healthCheckTimeout = healthCheckTimeout;
+    }
+}
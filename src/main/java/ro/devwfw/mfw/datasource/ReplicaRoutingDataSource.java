@@ -0,0 +1,290 @@
+package ro.devwfw.mfw.datasource;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceBuilder;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.bind.PropertySourcesPropertyValues;
+import org.springframework.boot.bind.RelaxedDataBinder;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ReplicaRoutingDataSource sends the read-only transactions to the
+ * replicas and everything else to the primary. The replicas are used in turn
+ * and checked every <code>dataSourceRouting.healthCheckInterval</code>; a
+ * replica which cannot give a connection is left out until it validates again
+ * and, when none is left, the reads go to the primary.
+ * <p>
+ * A session which committed a write reads from the primary for
+ * <code>dataSourceRouting.readYourWritesWindow</code> milliseconds, so it sees
+ * its own writes while the replicas catch up; the session of a request is set
+ * by the RoutingSessionInterceptor. Reads which fill the entity cache
+ * are run with {@link RoutingContext#onPrimary}, a lagging replica would leave
+ * stale entities in the cache of every session.
+ * <p>
+ * The read-only flag of a transaction is known only after it began, so this
+ * DataSource is used behind a LazyConnectionDataSourceProxy which takes the
+ * connection at the first statement.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private DataSourceRoutingProperties dataSourceRoutingProperties;
+
+    /**
+     * The spring.datasource settings, the defaults of the replicas.
+     */
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas = new ArrayList<>();
+
+    /**
+     * the replicas which validated at the last check
+     */
+    private volatile List<DataSource> healthyReplicas = Collections.emptyList();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * the time of the last write by session, expired after the window
+     */
+    private Cache<String, Long> recentWrites;
+
+    private ScheduledExecutorService healthChecker;
+
+    private final LongAdder replicaReads = new LongAdder();
+
+    private final LongAdder primaryReads = new LongAdder();
+
+    private final LongAdder writes = new LongAdder();
+
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary) {
+        this.primary = primary;
+    }
+
+    @PostConstruct
+    private void createReplicas() {
+        recentWrites = CacheBuilder.newBuilder()
+                .expireAfterWrite(dataSourceRoutingProperties.getReadYourWritesWindow(), TimeUnit.MILLISECONDS)
+                .maximumSize(100000)
+                .build();
+        for (DataSourceRoutingProperties.Replica replica : dataSourceRoutingProperties.getReplicas()) {
+            replicas.add(createReplica(replica));
+        }
+        logger.info("- createReplicas replicas:{} readYourWritesWindow:{}", replicas.size(),
+                dataSourceRoutingProperties.getReadYourWritesWindow());
+        if (replicas.isEmpty())
+            return;
+
+        checkReplicas();
+        healthChecker = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("replica-health-%d").setDaemon(true).build());
+        long interval = dataSourceRoutingProperties.getHealthCheckInterval();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates the pool of a replica with the spring.datasource pool settings,
+     * e.g. max-active, and the url and credentials of the replica.
+     */
+    private DataSource createReplica(DataSourceRoutingProperties.Replica replica) {
+        DataSource dataSource = DataSourceBuilder.create(dataSourceProperties.getClassLoader())
+                .type(dataSourceProperties.getType())
+                .url(replica.getUrl())
+                .username(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.getUsername())
+                .password(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.getPassword())
+                .build();
+        RelaxedDataBinder binder = new RelaxedDataBinder(dataSource, DataSourceProperties.PREFIX);
+        binder.setDisallowedFields("url", "username", "password", "driverClassName");
+        binder.bind(new PropertySourcesPropertyValues(environment.getPropertySources()));
+        return dataSource;
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        if (healthChecker != null)
+            healthChecker.shutdownNow();
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable) {
+                try {
+                    ((Closeable) replica).close();
+                } catch (Exception e) {
+                    logger.warn("- shutdown failed to close a replica", e);
+                }
+            } else if (replica instanceof org.apache.tomcat.jdbc.pool.DataSource) {
+                ((org.apache.tomcat.jdbc.pool.DataSource) replica).close();
+            }
+        }
+    }
+
+    /**
+     * Validates a connection of every replica and keeps the ones which answer.
+     */
+    private void checkReplicas() {
+        List<DataSource> healthy = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            DataSource replica = replicas.get(i);
+            try (Connection connection = replica.getConnection()) {
+                if (connection.isValid(dataSourceRoutingProperties.getHealthCheckTimeout()))
+                    healthy.add(replica);
+                else
+                    logger.warn("- checkReplicas replica:{} is not valid", i);
+            } catch (SQLException | RuntimeException e) {
+                logger.warn("- checkReplicas replica:{} failed: {}", i, e.toString());
+            }
+        }
+        if (healthy.size() != healthyReplicas.size())
+            logger.info("- checkReplicas healthy:{} of {}", healthy.size(), replicas.size());
+        healthyReplicas = Collections.unmodifiableList(healthy);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(username, password);
+    }
+
+    private Connection route(String username, String password) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            recordWrite();
+            return connect(primary, username, password);
+        }
+
+        List<DataSource> candidates = healthyReplicas;
+        String session = RoutingContext.getSession();
+        if (candidates.isEmpty() || RoutingContext.isPrimaryRequired()
+                || (session != null && recentWrites.getIfPresent(session) != null)) {
+            primaryReads.increment();
+            return connect(primary, username, password);
+        }
+
+        DataSource replica = candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+        try {
+            Connection connection = connect(replica, username, password);
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("- route replica failed, reading from the primary: {}", e.toString());
+            markDown(replica);
+            fallbacks.increment();
+            primaryReads.increment();
+            return connect(primary, username, password);
+        }
+    }
+
+    private Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username != null ? dataSource.getConnection(username, password) : dataSource.getConnection();
+    }
+
+    /**
+     * Leaves a replica out until the next check validates it.
+     */
+    private synchronized void markDown(DataSource replica) {
+        List<DataSource> healthy = new ArrayList<>(healthyReplicas);
+        if (healthy.remove(replica))
+            healthyReplicas = Collections.unmodifiableList(healthy);
+    }
+
+    /**
+     * Starts the read-your-writes window of the session when the transaction
+     * commits, or at once when the statements are not run in a transaction.
+     */
+    private void recordWrite() {
+        final String session = RoutingContext.getSession();
+        if (session == null)
+            return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentWrites.put(session, System.currentTimeMillis());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                recentWrites.put(session, System.currentTimeMillis());
+            }
+        });
+    }
+
+    /**
+     * @return the number of replicas configured
+     */
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     * @return the number of replicas which validated at the last check
+     */
+    public int getHealthyReplicaCount() {
+        return healthyReplicas.size();
+    }
+
+    /**
+     * @return the number of read-only connections taken from the replicas
+     */
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    /**
+     * @return the number of read-only connections taken from the primary
+     */
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    /**
+     * @return the number of connections taken from the primary outside a
+     * read-only transaction
+     */
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    /**
+     * @return the number of reads sent to the primary because a replica failed
+     */
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+}
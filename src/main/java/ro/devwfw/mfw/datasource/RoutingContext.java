@@ -0,0 +1,97 @@
+package ro.devwfw.mfw.datasource;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * The RoutingContext holds, for the current thread, what the
+ * {@link ReplicaRoutingDataSource} needs besides the transaction: the session
+ * whose writes must be read back from the primary and whether the primary is
+ * required regardless of the transaction, e.g. to fill the entity cache.
+ * <pre>
+ * BaseEntity baseEntity = RoutingContext.onPrimary(() -&gt; baseRepository.findOne(clazz, id));
+ * </pre>
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public final class RoutingContext {
+
+    /**
+     * the session of the request served by the current thread
+     */
+    private static final ThreadLocal<String> SESSION = new ThreadLocal<String>();
+
+    /**
+     * <code>true</code> while the current thread must read from the primary
+     */
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<Boolean>();
+
+    private RoutingContext() {
+    }
+
+    /**
+     * @return The session of the current thread or <code>null</code>
+     */
+    public static String getSession() {
+        return SESSION.get();
+    }
+
+    /**
+     * @param session the session of the request served by the current thread
+     */
+    public static void setSession(String session) {
+        SESSION.set(session);
+    }
+
+    public static void clearSession() {
+        SESSION.remove();
+    }
+
+    /**
+     * Binds the session of the current thread to a task run by another thread.
+     *
+     * @param task the task
+     * @param <T>  the result type of the task
+     * @return A task running in the session of the current thread
+     */
+    public static <T> Callable<T> propagate(final Callable<T> task) {
+        final String session = getSession();
+        if (session == null)
+            return task;
+        return () -> {
+            setSession(session);
+            try {
+                return task.call();
+            } finally {
+                clearSession();
+            }
+        };
+    }
+
+    /**
+     * @return <code>true</code> while the current thread must read from the primary
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY.get() != null;
+    }
+
+    /**
+     * Runs an action whose connections are taken from the primary, even in a
+     * read-only transaction.
+     *
+     * @param action the action to run
+     * @param <T>    the result type of the action
+     * @return The result of the action
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (isPrimaryRequired())
+            return action.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY.remove();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ro.devwfw.mfw.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapper;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The EntityMetrics holds an {@link OperationMeter} for every operation of
+ * every entity mapped by the {@link PathVariableToClassMapper}. The meters are
+ * registered at startup so looking one up on the hot path is a single map read
+ * and does not build any metric name.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@Component
+public class EntityMetrics {
+
+    /**
+     * the name under which entities that are not mapped are measured
+     */
+    public static final String UNMAPPED = "unmapped";
+
+    /**
+     * The PathVariableToClassMapper provides the entity types to be measured.
+     */
+    @Autowired
+    private PathVariableToClassMapper pathVariableToClassMapper;
+
+    /**
+     * meters by entity class, indexed by operation ordinal
+     */
+    private Map<Class<?>, OperationMeter[]> metersByClass;
+
+    /**
+     * meters by entity name, for reporting
+     */
+    private Map<String, OperationMeter[]> metersByName;
+
+    private final OperationMeter[] unmappedMeters = createMeters();
+
+    @PostConstruct
+    private void registerMeters() {
+        Map<Class<?>, OperationMeter[]> byClass = new HashMap<>();
+        Map<String, OperationMeter[]> byName = new LinkedHashMap<>();
+        for (Map.Entry<String, Class<? extends BaseEntity>> entry : pathVariableToClassMapper.getMappings().entrySet()) {
+            OperationMeter[] meters = createMeters();
+            byClass.put(entry.getValue(), meters);
+            byName.put(entry.getKey(), meters);
+        }
+        byName.put(UNMAPPED, unmappedMeters);
+        metersByClass = Collections.unmodifiableMap(byClass);
+        metersByName = Collections.unmodifiableMap(byName);
+    }
+
+    private static OperationMeter[] createMeters() {
+        OperationMeter[] meters = new OperationMeter[EntityOperation.values().length];
+        for (int i = 0; i < meters.length; i++) {
+            meters[i] = new OperationMeter();
+        }
+        return meters;
+    }
+
+    /**
+     * Returns the meter of an operation on an entity type.
+     *
+     * @param clazz     the class of the entity
+     * @param operation the operation
+     * @return the meter, never <code>null</code>
+     */
+    public OperationMeter meter(Class<?> clazz, EntityOperation operation) {
+        OperationMeter[] meters = metersByClass.get(clazz);
+        return (meters != null ? meters : unmappedMeters)[operation.ordinal()];
+    }
+
+    /**
+     * Returns the meter of an operation by entity name.
+     *
+     * @param entityName the entity name from @EntityName
+     * @param operation  the operation
+     * @return the meter or <code>null</code> if the entity name is not mapped
+     */
+    public OperationMeter meter(String entityName, EntityOperation operation) {
+        OperationMeter[] meters = metersByName.get(entityName);
+        return meters != null ? meters[operation.ordinal()] : null;
+    }
+
+    /**
+     * @return the names of the measured entities
+     */
+    public Iterable<String> getEntityNames() {
+        return metersByName.keySet();
+    }
+}
@@ -0,0 +1,40 @@
+package ro.devwfw.mfw.metrics;
+
+/**
+ * The operations of the BaseService measured per entity type. The metric name
+ * of an operation is the name of the BaseService method.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public enum EntityOperation {
+    FIND_ALL("findAll"),
+    FIND_PAGE("findPage"),
+    FIND_RECENT("findRecent"),
+    FIND_CHANGES("findChanges"),
+    QUERY("query"),
+    SCROLL_ALL("scrollAll"),
+    COUNT("count"),
+    FIND_VERSION("findVersion"),
+    FIND_ONE("findOne"),
+    FIND_MANY("findMany"),
+    CREATE("create"),
+    UPDATE("update"),
+    DELETE("delete"),
+    CREATE_ALL("createAll"),
+    UPDATE_ALL("updateAll"),
+    DELETE_ALL("deleteAll");
+
+    private final String metricName;
+
+    EntityOperation(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * @return the name used in the metric keys
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,109 @@
+package ro.devwfw.mfw.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The OperationMeter measures one operation of one entity type: the number of
+ * calls and errors, the latency of the calls and the latency of the database
+ * round trips made by them.
+ * <p>
+ * Recording is wait-free and does not allocate, the latencies go to HdrHistogram
+ * recorders in microseconds. Reading the meter moves the recorded values into
+ * histograms accumulated since startup.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class OperationMeter {
+
+    /**
+     * The highest latency tracked, in microseconds; higher values are clamped.
+     */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * The precision of the histograms; 2 digits keep every histogram around
+     * 20KB.
+     */
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final Recorder latency = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Recorder dbLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Histogram latencyTotal = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Histogram dbLatencyTotal = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private Histogram latencyInterval;
+
+    private Histogram dbLatencyInterval;
+
+    /**
+     * Records a completed call.
+     *
+     * @param nanos the duration of the call in nanoseconds
+     */
+    public void record(long nanos) {
+        calls.increment();
+        latency.recordValue(toMicros(nanos));
+    }
+
+    /**
+     * Records a call that ended with an exception.
+     *
+     * @param nanos the duration of the call in nanoseconds
+     */
+    public void recordError(long nanos) {
+        errors.increment();
+        record(nanos);
+    }
+
+    /**
+     * Records a database round trip made by a call.
+     *
+     * @param nanos the duration of the round trip in nanoseconds
+     */
+    public void recordDb(long nanos) {
+        dbLatency.recordValue(toMicros(nanos));
+    }
+
+    private static long toMicros(long nanos) {
+        long micros = nanos / 1000;
+        return micros < HIGHEST_TRACKABLE_MICROS ? micros : HIGHEST_TRACKABLE_MICROS;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return a copy of the call latencies since startup, in microseconds
+     */
+    public synchronized Histogram getLatency() {
+        latencyInterval = latency.getIntervalHistogram(latencyInterval);
+        latencyTotal.add(latencyInterval);
+        return latencyTotal.copy();
+    }
+
+    /**
+     * @return a copy of the database round trip latencies since startup, in microseconds
+     */
+    public synchronized Histogram getDbLatency() {
+        dbLatencyInterval = dbLatency.getIntervalHistogram(dbLatencyInterval);
+        dbLatencyTotal.add(dbLatencyInterval);
+        return dbLatencyTotal.copy();
+    }
+}
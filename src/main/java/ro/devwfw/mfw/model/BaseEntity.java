@@ -1,20 +1,35 @@
 package ro.devwfw.mfw.model;
 
+import org.hibernate.Hibernate;
+
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import java.sql.Timestamp;
 import java.util.Objects;
 
 /**
+ * The ids are taken from a sequence per entity by the
+ * {@link ro.devwfw.mfw.utils.idgenerator.PooledSequenceGenerator}, so the
+ * inserts can be batched.
+ *
  * @author LaurentiuM
  * @version createdOn: 12/20/15
  */
 @MappedSuperclass
 public abstract class BaseEntity {
+
+    /**
+     * The name of the pooled sequence generator of the entity ids, declared in
+     * package-info.
+     */
+    public static final String ID_GENERATOR = "pooledSequence";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = ID_GENERATOR)
     private Long id;
     private Timestamp updtimestamp;
 
@@ -34,17 +49,29 @@ public abstract class BaseEntity {
         this.updtimestamp = updtimestamp;
     }
 
+    /**
+     * Sets the updtimestamp when the entity is persisted or updated through
+     * the persistence context, it is the version used by optimistic locking
+     * and conditional requests.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updtimestamp = new Timestamp(System.currentTimeMillis());
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        // lazy associations are proxies, compare the entity classes and read the id through the getter
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
         BaseEntity be = (BaseEntity) o;
-        return Objects.equals(id, be.id);
+        return Objects.equals(getId(), be.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Objects.hash(getId());
     }
 
     @Override
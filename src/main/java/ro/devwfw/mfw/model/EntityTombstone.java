@@ -0,0 +1,48 @@
+package ro.devwfw.mfw.model;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import java.sql.Timestamp;
+
+/**
+ * The EntityTombstone records the deletion of an entity, so the change feed
+ * can report it after the row is gone. The entity type is the JPA entity name.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@Entity
+public class EntityTombstone {
+    @Id
+    @GeneratedValue(generator = BaseEntity.ID_GENERATOR)
+    private Long id;
+    private String entityType;
+    private Long entityId;
+    private Timestamp deletedAt;
+
+    public EntityTombstone() {
+    }
+
+    public EntityTombstone(String entityType, Long entityId, Timestamp deletedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Timestamp getDeletedAt() {
+        return deletedAt;
+    }
+}
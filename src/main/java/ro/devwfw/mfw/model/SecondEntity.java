@@ -3,6 +3,7 @@ package ro.devwfw.mfw.model;
 import ro.devwfw.mfw.utils.annotations.EntityName;
 
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 
@@ -16,7 +17,7 @@ public class SecondEntity extends BaseEntity {
 
     private String extraProperty;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private DemoEntity demoEntity;
 
     public String getExtraProperty() {
@@ -0,0 +1,11 @@
+/**
+ * The entities, their ids are taken from a sequence per entity by the
+ * {@link ro.devwfw.mfw.utils.idgenerator.PooledSequenceGenerator}.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@GenericGenerator(name = BaseEntity.ID_GENERATOR, strategy = "ro.devwfw.mfw.utils.idgenerator.PooledSequenceGenerator")
+package ro.devwfw.mfw.model;
+
+import org.hibernate.annotations.GenericGenerator;
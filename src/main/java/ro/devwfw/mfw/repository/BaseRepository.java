@@ -1,8 +1,13 @@
 package ro.devwfw.mfw.repository;
 
 import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.model.EntityTombstone;
 
+import java.sql.Timestamp;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * A repository that persist BaseEntities
@@ -20,6 +25,125 @@ public interface BaseRepository {
      */
     <T extends BaseEntity> Collection<T> findAll(Class<T> clazz);
 
+    /**
+     * Find all BaseEntities entities, fetching the expanded associations in
+     * the same query.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param expand the single valued associations to be fetched, e.g. demoEntity
+     * @param <T> the class type of BaseEnity
+     * @return A Collection of BaseEnity objects.
+     * @throws InvalidQueryException if an expanded path is not a single valued association
+     */
+    <T extends BaseEntity> Collection<T> findAll(Class<T> clazz, Collection<String> expand);
+
+    /**
+     * Counts the BaseEntities entities with a single <code>SELECT COUNT(*)</code>.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param <T> the class type of BaseEnity
+     * @return The number of persisted entities.
+     */
+    <T extends BaseEntity> long count(Class<T> clazz);
+
+    /**
+     * Finds the version of all the BaseEntities entities of a type, their
+     * number and latest updtimestamp, with a single aggregate query.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param <T> the class type of BaseEnity
+     * @return The CollectionVersion of the entities.
+     */
+    <T extends BaseEntity> CollectionVersion findVersion(Class<T> clazz);
+
+    /**
+     * Find a page of BaseEntities entities using keyset pagination on the
+     * primary key. Entities are ordered by id ascending.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param after the last id of the previous page or <code>null</code> for the first page
+     * @param limit the maximum number of entities to be returned
+     * @param expand the single valued associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects with ids greater than after.
+     */
+    <T extends BaseEntity> List<T> findPage(Class<T> clazz, Long after, int limit, Collection<String> expand);
+
+    /**
+     * Find the most recently updated BaseEntities entities, ordered by
+     * updtimestamp descending.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param limit the maximum number of entities to be returned
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects.
+     */
+    <T extends BaseEntity> List<T> findRecent(Class<T> clazz, int limit);
+
+    /**
+     * Find the BaseEntities entities created or updated after the position of
+     * a cursor, ordered by updtimestamp and id.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param cursor the position of the last change read
+     * @param until the latest updtimestamp to be returned
+     * @param limit the maximum number of entities to be returned
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects.
+     */
+    <T extends BaseEntity> List<T> findChanged(Class<T> clazz, ChangeCursor cursor, Timestamp until, int limit);
+
+    /**
+     * Find the tombstones of the BaseEntities entities deleted after the
+     * position of a cursor, ordered by deletedAt and id.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param cursor the position of the last deletion read
+     * @param until the latest deletedAt to be returned
+     * @param limit the maximum number of tombstones to be returned
+     * @param <T> the class type of BaseEnity
+     * @return A List of EntityTombstone objects.
+     */
+    <T extends BaseEntity> List<EntityTombstone> findDeleted(Class<T> clazz, ChangeCursor cursor, Timestamp until, int limit);
+
+    /**
+     * Finds the BaseEntities entities matching an EntityQuery. The filters and
+     * the order are applied by the database, entities with equal sort keys are
+     * ordered by id.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param entityQuery the filters, order and page of the query
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects.
+     * @throws InvalidQueryException if an attribute or a value does not match the metamodel
+     */
+    <T extends BaseEntity> List<T> findByQuery(Class<T> clazz, EntityQuery entityQuery);
+
+    /**
+     * Selects only the fields of an EntityQuery with a tuple query.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param entityQuery the fields, filters, order and page of the query
+     * @param <T> the class type of BaseEnity
+     * @return A List of maps from field to value, in the order of the fields.
+     * @throws InvalidQueryException if an attribute or a value does not match the metamodel
+     */
+    <T extends BaseEntity> List<Map<String, Object>> findProjection(Class<T> clazz, EntityQuery entityQuery);
+
+    /**
+     * Streams all BaseEntities entities through a forward only cursor. The
+     * entities are detached from the persistence context periodically so that
+     * the memory use does not depend on the size of the table. Must be called
+     * inside a transaction.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param expand the single valued associations to be fetched
+     * @param consumer receives every entity in id order
+     * @param <T> the class type of BaseEnity
+     * @return The number of entities streamed.
+     */
+    <T extends BaseEntity> long scrollAll(Class<T> clazz, Collection<String> expand, Consumer<? super T> consumer);
+
     /**
      * Find a single BaseEntity entity by primary key identifier.
      *
@@ -30,6 +154,29 @@ public interface BaseRepository {
      */
     <T extends BaseEntity> T findOne(Class<T> clazz, Long id);
 
+    /**
+     * Find a single BaseEntity entity by primary key identifier, fetching the
+     * expanded associations in the same query.
+     *
+     * @param clazz the class type of BaseEntity
+     * @param id A Long primary key identifier.
+     * @param expand the single valued associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return A BaseEnity or <code>null</code> if none found.
+     */
+    <T extends BaseEntity> T findOne(Class<T> clazz, Long id, Collection<String> expand);
+
+    /**
+     * Find the BaseEntity entities with the given primary key identifiers with
+     * a single <code>WHERE id IN (...)</code> query.
+     *
+     * @param clazz the class type of BaseEntity
+     * @param ids primary key identifiers, not empty
+     * @param <T> the class type of BaseEnity
+     * @return The entities found, in no particular order.
+     */
+    <T extends BaseEntity> List<T> findByIds(Class<T> clazz, Collection<Long> ids);
+
     /**
      * Persists a BaseEntity entity in the data store.
      *
@@ -49,12 +196,73 @@ public interface BaseRepository {
     <T extends BaseEntity> T update(T baseEntity);
 
     /**
-     * Removes a previously persisted BaseEntity entity from the data store.
+     * Updates a previously persisted BaseEntity entity with a single UPDATE
+     * statement, without loading it. The updtimestamp is used as a version
+     * column: the row is only updated if it still has the updtimestamp of the
+     * entity, which must not be <code>null</code>. On success the updtimestamp
+     * of the entity is set to the new value.
+     *
+     * @param baseEntity A BaseEntity object to be updated.
+     * @param <T> the class type of BaseEnity
+     * @return The number of rows updated, 0 if the entity does not exist or was
+     * modified since it was read.
+     */
+    <T extends BaseEntity> int updateIfUnmodified(T baseEntity);
+
+    /**
+     * Persists BaseEntity entities in the data store using JDBC batching. The
+     * persistence context is flushed and cleared every chunkSize entities.
+     *
+     * @param baseEntities BaseEntity objects to be persisted.
+     * @param chunkSize the number of entities written before a flush
+     * @param <T> the class type of BaseEnity
+     * @return The persisted BaseEntity entities.
+     */
+    <T extends BaseEntity> List<T> createAll(List<T> baseEntities, int chunkSize);
+
+    /**
+     * Updates previously persisted BaseEntity entities with the single UPDATE
+     * statement of {@link #updateIfUnmodified} each, without loading them. The
+     * updtimestamp of every entity must not be <code>null</code> and is set to
+     * the new value of the rows updated.
+     *
+     * @param baseEntities BaseEntity objects to be updated.
+     * @param <T> the class type of BaseEnity
+     * @return The number of rows updated for every entity, in order, 0 if the
+     * entity does not exist or was modified since it was read.
+     */
+    <T extends BaseEntity> int[] updateAll(List<T> baseEntities);
+
+    /**
+     * Finds which of the given primary key identifiers exist in the data store.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param ids primary key identifiers
+     * @param <T> the class type of BaseEnity
+     * @return The existing identifiers.
+     */
+    <T extends BaseEntity> List<Long> findIds(Class<T> clazz, Collection<Long> ids);
+
+    /**
+     * Removes previously persisted BaseEntity entities with a single statement
+     * and records a tombstone for every id.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param ids primary key identifiers
+     * @param <T> the class type of BaseEnity
+     * @return The number of entities removed.
+     */
+    <T extends BaseEntity> int deleteAll(Class<T> clazz, Collection<Long> ids);
+
+    /**
+     * Removes a previously persisted BaseEntity entity from the data store
+     * with a single DELETE statement and records its tombstone.
      *
      * @param id A Long primary key identifier.
      * @param <T> the class type of BaseEnity
      * @param clazz Of the entity that is persisted
+     * @return The number of rows removed, 0 if the entity does not exist.
      */
-    <T extends BaseEntity> void delete(Class<T> clazz, Long id);
+    <T extends BaseEntity> int delete(Class<T> clazz, Long id);
 
 }
@@ -1,15 +1,50 @@
 package ro.devwfw.mfw.repository;
 
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.ReflectionUtils;
 import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.model.EntityTombstone;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.FetchParent;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * A repository that persist BaseEntities
@@ -22,6 +57,18 @@ public class BaseRepositoryImpl implements BaseRepository {
     @PersistenceContext
     protected EntityManager entityManager;
 
+    /**
+     * number of rows fetched per round trip when scrolling, the persistence
+     * context is cleared after each fetch
+     */
+    @Value("${baseEntities.scroll.fetchSize:500}")
+    private int fetchSize;
+
+    /**
+     * converts the filter values of an EntityQuery to the attribute types
+     */
+    private static final ConversionService CONVERSION_SERVICE = new DefaultConversionService();
+
     /**
      * Find all BaseEntities entities.
      *
@@ -29,16 +76,412 @@ public class BaseRepositoryImpl implements BaseRepository {
      * @return A Collection of BaseEnity objects.
      */
     public <T extends BaseEntity> Collection<T> findAll(Class<T> clazz) {
+        return findAll(clazz, Collections.<String>emptyList());
+    }
+
+    /**
+     * Find all BaseEntities entities, fetching the expanded associations in
+     * the same query.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param expand the associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return A Collection of BaseEnity objects.
+     */
+    public <T extends BaseEntity> Collection<T> findAll(Class<T> clazz, Collection<String> expand) {
         final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
         final CriteriaQuery<T> criteria = criteriaBuilder.createQuery(clazz);
 
         final Root<T> root = criteria.from(clazz);
         criteria.select(root);
+        applyFetchPlan(root, expand);
 
         final TypedQuery<T> query = entityManager.createQuery(criteria);
         return query.getResultList();
     }
 
+    /**
+     * Counts the BaseEntities entities with a single <code>SELECT COUNT(*)</code>.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param <T> the class type of BaseEnity
+     * @return The number of persisted entities.
+     */
+    public <T extends BaseEntity> long count(Class<T> clazz) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> criteria = criteriaBuilder.createQuery(Long.class);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.select(criteriaBuilder.count(root));
+
+        return entityManager.createQuery(criteria).getSingleResult();
+    }
+
+    /**
+     * Finds the number and the latest updtimestamp of the BaseEntities
+     * entities of a type with a single aggregate query.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param <T> the class type of BaseEnity
+     * @return The CollectionVersion of the entities.
+     */
+    public <T extends BaseEntity> CollectionVersion findVersion(Class<T> clazz) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<CollectionVersion> criteria = criteriaBuilder.createQuery(CollectionVersion.class);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.select(criteriaBuilder.construct(CollectionVersion.class,
+                criteriaBuilder.count(root), criteriaBuilder.greatest(root.<Timestamp>get("updtimestamp"))));
+
+        return entityManager.createQuery(criteria).getSingleResult();
+    }
+
+    /**
+     * Find a page of BaseEntities entities using keyset pagination on the
+     * primary key.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param after the last id of the previous page or <code>null</code> for the first page
+     * @param limit the maximum number of entities to be returned
+     * @param expand the associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects with ids greater than after.
+     */
+    public <T extends BaseEntity> List<T> findPage(Class<T> clazz, Long after, int limit, Collection<String> expand) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> criteria = criteriaBuilder.createQuery(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.select(root);
+        applyFetchPlan(root, expand);
+        if (after != null)
+            criteria.where(criteriaBuilder.greaterThan(root.<Long>get("id"), after));
+        criteria.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        final TypedQuery<T> query = entityManager.createQuery(criteria);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public <T extends BaseEntity> List<T> findRecent(Class<T> clazz, int limit) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> criteria = criteriaBuilder.createQuery(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.select(root);
+        criteria.orderBy(criteriaBuilder.desc(root.get("updtimestamp")), criteriaBuilder.desc(root.get("id")));
+
+        final TypedQuery<T> query = entityManager.createQuery(criteria);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public <T extends BaseEntity> List<T> findChanged(Class<T> clazz, ChangeCursor cursor, Timestamp until, int limit) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> criteria = criteriaBuilder.createQuery(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.select(root);
+        criteria.where(after(criteriaBuilder, root.<Timestamp>get("updtimestamp"), root.<Long>get("id"),
+                cursor.getUpdatedAt(), cursor.getUpdatedId(), until));
+        criteria.orderBy(criteriaBuilder.asc(root.get("updtimestamp")), criteriaBuilder.asc(root.get("id")));
+
+        final TypedQuery<T> query = entityManager.createQuery(criteria);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public <T extends BaseEntity> List<EntityTombstone> findDeleted(Class<T> clazz, ChangeCursor cursor, Timestamp until, int limit) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<EntityTombstone> criteria = criteriaBuilder.createQuery(EntityTombstone.class);
+
+        final Root<EntityTombstone> root = criteria.from(EntityTombstone.class);
+        criteria.select(root);
+        criteria.where(criteriaBuilder.equal(root.get("entityType"), entityType(clazz)),
+                after(criteriaBuilder, root.<Timestamp>get("deletedAt"), root.<Long>get("id"),
+                        cursor.getDeletedAt(), cursor.getDeletedId(), until));
+        criteria.orderBy(criteriaBuilder.asc(root.get("deletedAt")), criteriaBuilder.asc(root.get("id")));
+
+        final TypedQuery<EntityTombstone> query = entityManager.createQuery(criteria);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    /**
+     * Builds the keyset predicate (timestamp, id) &gt; (afterTimestamp, afterId)
+     * and timestamp &lt;= until, which the (timestamp, id) index answers.
+     */
+    private Predicate after(CriteriaBuilder criteriaBuilder, Path<Timestamp> timestamp, Path<Long> id,
+                            long afterTimestamp, long afterId, Timestamp until) {
+        Timestamp after = new Timestamp(afterTimestamp);
+        return criteriaBuilder.and(
+                criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(timestamp, after),
+                        criteriaBuilder.and(criteriaBuilder.equal(timestamp, after), criteriaBuilder.greaterThan(id, afterId))),
+                criteriaBuilder.lessThanOrEqualTo(timestamp, until));
+    }
+
+    private String entityType(Class<?> clazz) {
+        return entityManager.getMetamodel().entity(clazz).getName();
+    }
+
+    private void recordTombstones(Class<?> clazz, Collection<Long> ids) {
+        final String entityType = entityType(clazz);
+        final Timestamp deletedAt = new Timestamp(System.currentTimeMillis());
+        for (Long id : ids) {
+            entityManager.persist(new EntityTombstone(entityType, id, deletedAt));
+        }
+    }
+
+    /**
+     * Finds the BaseEntities entities matching an EntityQuery. The filters and
+     * the order are applied by the database, entities with equal sort keys are
+     * ordered by id.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param entityQuery the filters, order and page of the query
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects.
+     */
+    public <T extends BaseEntity> List<T> findByQuery(Class<T> clazz, EntityQuery entityQuery) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> criteria = criteriaBuilder.createQuery(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        final Map<String, From<?, ?>> joins = new HashMap<>();
+        criteria.select(root);
+        applyFetchPlan(root, entityQuery.getExpand());
+        applyFiltersAndSorts(criteriaBuilder, criteria, root, joins, entityQuery);
+
+        final TypedQuery<T> query = entityManager.createQuery(criteria);
+        query.setFirstResult(entityQuery.getOffset());
+        query.setMaxResults(entityQuery.getLimit());
+        return query.getResultList();
+    }
+
+    /**
+     * Selects only the fields of an EntityQuery with a tuple query, so that
+     * neither the other columns nor the entities are loaded.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param entityQuery the fields, filters, order and page of the query
+     * @param <T> the class type of BaseEnity
+     * @return A List of maps from field to value, in the order of the fields.
+     */
+    public <T extends BaseEntity> List<Map<String, Object>> findProjection(Class<T> clazz, EntityQuery entityQuery) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> criteria = criteriaBuilder.createTupleQuery();
+
+        final Root<T> root = criteria.from(clazz);
+        final Map<String, From<?, ?>> joins = new HashMap<>();
+        final List<String> fields = entityQuery.getFields();
+        if (fields.isEmpty())
+            throw new InvalidQueryException("At least one field must be selected");
+        if (!entityQuery.getExpand().isEmpty())
+            throw new InvalidQueryException("Associations can not be expanded when fields are selected");
+        final List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(getPath(root, joins, field));
+        }
+        criteria.multiselect(selections);
+        applyFiltersAndSorts(criteriaBuilder, criteria, root, joins, entityQuery);
+
+        final TypedQuery<Tuple> query = entityManager.createQuery(criteria);
+        query.setFirstResult(entityQuery.getOffset());
+        query.setMaxResults(entityQuery.getLimit());
+
+        final List<Tuple> tuples = query.getResultList();
+        final List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Adds the WHERE and ORDER BY clauses of an EntityQuery to a criteria query.
+     */
+    private void applyFiltersAndSorts(CriteriaBuilder criteriaBuilder, CriteriaQuery<?> criteria, Root<?> root,
+                                      Map<String, From<?, ?>> joins, EntityQuery entityQuery) {
+        final List<Predicate> predicates = new ArrayList<>();
+        for (EntityQuery.Filter filter : entityQuery.getFilters()) {
+            predicates.add(toPredicate(criteriaBuilder, getPath(root, joins, filter.getAttribute()), filter));
+        }
+        criteria.where(predicates.toArray(new Predicate[predicates.size()]));
+
+        final List<Order> orders = new ArrayList<>();
+        boolean byId = false;
+        for (EntityQuery.Sort sort : entityQuery.getSorts()) {
+            Path<?> path = getPath(root, joins, sort.getAttribute());
+            orders.add(sort.isAscending() ? criteriaBuilder.asc(path) : criteriaBuilder.desc(path));
+            byId |= "id".equals(sort.getAttribute());
+        }
+        // the id breaks the ties of the other keys, so the offset pages are stable
+        if (!byId)
+            orders.add(criteriaBuilder.asc(root.get("id")));
+        criteria.orderBy(orders);
+    }
+
+    /**
+     * Resolves an attribute path against the metamodel. Associations are left
+     * joined once per query, so that entities without the association are kept.
+     *
+     * @param root the root of the query
+     * @param joins the joins already made by the query, by path
+     * @param attributePath a path like <code>description</code> or <code>demoEntity.id</code>
+     * @return The path of a basic attribute.
+     * @throws InvalidQueryException if the path does not name a basic attribute
+     */
+    private Path<?> getPath(Root<?> root, Map<String, From<?, ?>> joins, String attributePath) {
+        final String[] names = attributePath.split("\\.");
+        From<?, ?> from = root;
+        ManagedType<?> type = root.getModel();
+        String joinPath = null;
+        for (int i = 0; i < names.length; i++) {
+            final Attribute<?, ?> attribute;
+            try {
+                attribute = type.getAttribute(names[i]);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidQueryException("Unknown attribute " + attributePath);
+            }
+            if (attribute.isCollection())
+                throw new InvalidQueryException("Attribute " + attributePath + " is a collection");
+            final SingularAttribute<?, ?> singularAttribute = (SingularAttribute<?, ?>) attribute;
+            final boolean last = i == names.length - 1;
+            if (singularAttribute.getType().getPersistenceType() == Type.PersistenceType.BASIC) {
+                if (!last)
+                    throw new InvalidQueryException("Attribute " + names[i] + " of " + attributePath + " has no attributes");
+                return from.get(names[i]);
+            }
+            if (last)
+                throw new InvalidQueryException("Attribute " + attributePath + " is not a basic attribute, use "
+                        + attributePath + ".id");
+
+            joinPath = joinPath == null ? names[i] : joinPath + "." + names[i];
+            From<?, ?> join = joins.get(joinPath);
+            if (join == null) {
+                join = from.join(names[i], JoinType.LEFT);
+                joins.put(joinPath, join);
+            }
+            from = join;
+            type = (ManagedType<?>) singularAttribute.getType();
+        }
+        throw new InvalidQueryException("Unknown attribute " + attributePath);
+    }
+
+    /**
+     * Creates the predicate of a filter, converting its values to the type of
+     * the attribute.
+     */
+    private Predicate toPredicate(CriteriaBuilder criteriaBuilder, Path<?> path, EntityQuery.Filter filter) {
+        final List<String> values = filter.getValues();
+        final EntityQuery.Operator operator = filter.getOperator();
+        if (operator == EntityQuery.Operator.NULL)
+            return criteriaBuilder.isNull(path);
+        if (operator == EntityQuery.Operator.NOTNULL)
+            return criteriaBuilder.isNotNull(path);
+        if (values.isEmpty() || (operator != EntityQuery.Operator.IN && values.size() > 1))
+            throw new InvalidQueryException("Filter " + operator.name().toLowerCase() + " on "
+                    + filter.getAttribute() + " needs " + (operator == EntityQuery.Operator.IN ? "at least one value" : "one value"));
+
+        if (operator == EntityQuery.Operator.IN) {
+            List<Object> converted = new ArrayList<>(values.size());
+            for (String value : values) {
+                converted.add(convert(path, filter, value));
+            }
+            return path.in(converted);
+        }
+        if (operator == EntityQuery.Operator.LIKE) {
+            if (path.getJavaType() != String.class)
+                throw new InvalidQueryException("Filter like needs a text attribute, " + filter.getAttribute() + " is not");
+            return criteriaBuilder.like((Path<String>) path, values.get(0));
+        }
+
+        final Object value = convert(path, filter, values.get(0));
+        switch (operator) {
+            case EQ:
+                return criteriaBuilder.equal(path, value);
+            case NE:
+                return criteriaBuilder.notEqual(path, value);
+        }
+        if (!(value instanceof Comparable))
+            throw new InvalidQueryException("Attribute " + filter.getAttribute() + " can not be compared");
+        final Path<Comparable> comparablePath = (Path<Comparable>) path;
+        final Comparable comparable = (Comparable) value;
+        switch (operator) {
+            case LT:
+                return criteriaBuilder.lessThan(comparablePath, comparable);
+            case LE:
+                return criteriaBuilder.lessThanOrEqualTo(comparablePath, comparable);
+            case GT:
+                return criteriaBuilder.greaterThan(comparablePath, comparable);
+            default:
+                return criteriaBuilder.greaterThanOrEqualTo(comparablePath, comparable);
+        }
+    }
+
+    /**
+     * Converts a filter value to the type of the attribute. Dates are given as
+     * milliseconds since the epoch, as they are serialized.
+     */
+    private Object convert(Path<?> path, EntityQuery.Filter filter, String value) {
+        final Class<?> javaType = path.getJavaType();
+        try {
+            if (Date.class.isAssignableFrom(javaType)) {
+                long millis = Long.parseLong(value);
+                return javaType == Timestamp.class ? new Timestamp(millis) : new Date(millis);
+            }
+            return CONVERSION_SERVICE.convert(value, javaType);
+        } catch (NumberFormatException | ConversionException e) {
+            throw new InvalidQueryException("Value " + value + " of filter on " + filter.getAttribute()
+                    + " is not a valid " + javaType.getSimpleName());
+        }
+    }
+
+    /**
+     * Streams all BaseEntities entities through a forward only cursor,
+     * clearing the persistence context every fetchSize rows.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param expand the associations to be fetched
+     * @param consumer receives every entity in id order
+     * @param <T> the class type of BaseEnity
+     * @return The number of entities streamed.
+     */
+    public <T extends BaseEntity> long scrollAll(Class<T> clazz, Collection<String> expand, Consumer<? super T> consumer) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> criteria = criteriaBuilder.createQuery(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.select(root);
+        applyFetchPlan(root, expand);
+        criteria.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        final Query query = entityManager.createQuery(criteria).unwrap(Query.class);
+        query.setReadOnly(true);
+        query.setFetchSize(fetchSize);
+
+        long count = 0;
+        ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (results.next()) {
+                consumer.accept(clazz.cast(results.get(0)));
+                if (++count % fetchSize == 0)
+                    entityManager.clear();
+            }
+        } finally {
+            results.close();
+        }
+        return count;
+    }
+
     /**
      * Find a single BaseEntity entity by primary key identifier.
      *
@@ -50,6 +493,87 @@ public class BaseRepositoryImpl implements BaseRepository {
         return entityManager.find(clazz, id);
     }
 
+    /**
+     * Find a single BaseEntity entity by primary key identifier, fetching the
+     * expanded associations in the same query.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param id A Long primary key identifier.
+     * @param expand the associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return A BaseEnity or <code>null</code> if none found.
+     */
+    public <T extends BaseEntity> T findOne(Class<T> clazz, Long id, Collection<String> expand) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> criteria = criteriaBuilder.createQuery(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.select(root);
+        applyFetchPlan(root, expand);
+        criteria.where(criteriaBuilder.equal(root.get("id"), id));
+
+        final List<T> baseEntities = entityManager.createQuery(criteria).getResultList();
+        return baseEntities.isEmpty() ? null : baseEntities.get(0);
+    }
+
+    /**
+     * Find the BaseEntity entities with the given primary key identifiers with
+     * a single <code>WHERE id IN (...)</code> query.
+     *
+     * @param clazz the class type of BaseEnity
+     * @param ids primary key identifiers, not empty
+     * @param <T> the class type of BaseEnity
+     * @return The entities found, in no particular order.
+     */
+    public <T extends BaseEntity> List<T> findByIds(Class<T> clazz, Collection<Long> ids) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> criteria = criteriaBuilder.createQuery(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.select(root);
+        criteria.where(root.get("id").in(ids));
+
+        return entityManager.createQuery(criteria).getResultList();
+    }
+
+    /**
+     * Adds a LEFT JOIN FETCH for every expanded association, so that they are
+     * loaded by the query instead of one select per entity. Only single valued
+     * associations can be expanded, paths like <code>demoEntity</code> or
+     * <code>demoEntity.parent</code> are validated against the metamodel.
+     *
+     * @param root the root of the query
+     * @param expand the associations to be fetched
+     * @throws InvalidQueryException if a path is not a single valued association
+     */
+    private void applyFetchPlan(Root<?> root, Collection<String> expand) {
+        final Map<String, FetchParent<?, ?>> fetches = new HashMap<>();
+        for (String attributePath : expand) {
+            FetchParent<?, ?> parent = root;
+            ManagedType<?> type = root.getModel();
+            String fetchPath = null;
+            for (String name : attributePath.split("\\.")) {
+                final Attribute<?, ?> attribute;
+                try {
+                    attribute = type.getAttribute(name);
+                } catch (IllegalArgumentException e) {
+                    throw new InvalidQueryException("Unknown attribute " + attributePath);
+                }
+                if (!attribute.isAssociation() || attribute.isCollection())
+                    throw new InvalidQueryException("Attribute " + attributePath + " is not a single valued association");
+
+                fetchPath = fetchPath == null ? name : fetchPath + "." + name;
+                FetchParent<?, ?> fetch = fetches.get(fetchPath);
+                if (fetch == null) {
+                    fetch = parent.fetch(name, JoinType.LEFT);
+                    fetches.put(fetchPath, fetch);
+                }
+                parent = fetch;
+                type = (ManagedType<?>) ((SingularAttribute<?, ?>) attribute).getType();
+            }
+        }
+    }
+
     /**
      * Persists a BaseEntity entity in the data store.
      *
@@ -74,19 +598,147 @@ public class BaseRepositoryImpl implements BaseRepository {
     }
 
     /**
-     * Removes a previously persisted BaseEntity entity from the data store.
+     * Persists BaseEntity entities in the data store, flushing and clearing the
+     * persistence context every chunkSize entities so the inserts are sent as
+     * JDBC batches and the context does not grow.
      *
-     * @param id  A Long primary key identifier.
+     * @param baseEntities BaseEntity objects to be persisted.
+     * @param chunkSize the number of entities written before a flush
+     * @param <T> the class type of BaseEnity
+     * @return The persisted BaseEntity entities.
+     */
+    public <T extends BaseEntity> List<T> createAll(List<T> baseEntities, int chunkSize) {
+        int count = 0;
+        for (T baseEntity : baseEntities) {
+            entityManager.persist(baseEntity);
+            if (++count % chunkSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return baseEntities;
+    }
+
+    /**
+     * Updates previously persisted BaseEntity entities with a single UPDATE
+     * statement each, requiring the rows to still have the updtimestamps of
+     * the entities. The entities are not loaded, so the persistence context
+     * does not grow.
+     *
+     * @param baseEntities BaseEntity objects to be updated.
+     * @param <T> the class type of BaseEnity
+     * @return The number of rows updated for every entity, in order.
+     */
+    public <T extends BaseEntity> int[] updateAll(List<T> baseEntities) {
+        int[] updated = new int[baseEntities.size()];
+        for (int i = 0; i < baseEntities.size(); i++) {
+            updated[i] = updateIfUnmodified(baseEntities.get(i));
+        }
+        return updated;
+    }
+
+    /**
+     * Finds which of the given primary key identifiers exist in the data store.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param ids primary key identifiers
      * @param <T> the class type of BaseEnity
+     * @return The existing identifiers.
+     */
+    public <T extends BaseEntity> List<Long> findIds(Class<T> clazz, Collection<Long> ids) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> criteria = criteriaBuilder.createQuery(Long.class);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.select(root.<Long>get("id"));
+        criteria.where(root.get("id").in(ids));
+
+        return entityManager.createQuery(criteria).getResultList();
+    }
+
+    /**
+     * Removes previously persisted BaseEntity entities with a single statement.
+     *
      * @param clazz Of the entity that is persisted
+     * @param ids primary key identifiers
+     * @param <T> the class type of BaseEnity
+     * @return The number of entities removed.
+     */
+    public <T extends BaseEntity> int deleteAll(Class<T> clazz, Collection<Long> ids) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaDelete<T> criteria = criteriaBuilder.createCriteriaDelete(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.where(root.get("id").in(ids));
+
+        int deleted = entityManager.createQuery(criteria).executeUpdate();
+        recordTombstones(clazz, ids);
+        return deleted;
+    }
+
+    /**
+     * Updates a previously persisted BaseEntity entity with a single UPDATE
+     * statement setting every attribute but the id. The statement requires the
+     * row to still have the updtimestamp of the entity.
+     *
+     * @param baseEntity A BaseEntity object to be updated.
+     * @param <T> the class type of BaseEnity
+     * @return The number of rows updated.
      */
-    public <T extends BaseEntity> void delete(Class<T> clazz, Long id) {
-        BaseEntity baseEntity = findOne(clazz, id);
-        if (baseEntity != null) {
-            if (!entityManager.contains(baseEntity))
-                baseEntity = entityManager.merge(baseEntity);
-            entityManager.remove(baseEntity);
+    public <T extends BaseEntity> int updateIfUnmodified(T baseEntity) {
+        final Class<T> clazz = (Class<T>) baseEntity.getClass();
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaUpdate<T> criteria = criteriaBuilder.createCriteriaUpdate(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        for (SingularAttribute<? super T, ?> attribute : entityManager.getMetamodel().entity(clazz).getSingularAttributes()) {
+            if (!attribute.isId() && !attribute.isVersion() && !"updtimestamp".equals(attribute.getName()))
+                criteria.set(attribute.getName(), getAttributeValue(attribute, baseEntity));
+        }
+        final Timestamp updtimestamp = new Timestamp(System.currentTimeMillis());
+        criteria.set(root.<Timestamp>get("updtimestamp"), updtimestamp);
+
+        criteria.where(criteriaBuilder.equal(root.get("id"), baseEntity.getId()),
+                criteriaBuilder.equal(root.get("updtimestamp"), baseEntity.getUpdtimestamp()));
+
+        int updated = entityManager.createQuery(criteria).executeUpdate();
+        if (updated > 0)
+            baseEntity.setUpdtimestamp(updtimestamp);
+        return updated;
+    }
+
+    private Object getAttributeValue(SingularAttribute<?, ?> attribute, Object baseEntity) {
+        Member member = attribute.getJavaMember();
+        if (member instanceof Method) {
+            return ReflectionUtils.invokeMethod((Method) member, baseEntity);
         }
+        Field field = (Field) member;
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, baseEntity);
+    }
+
+    /**
+     * Removes a previously persisted BaseEntity entity from the data store
+     * with a single DELETE statement.
+     *
+     * @param id  A Long primary key identifier.
+     * @param <T> the class type of BaseEnity
+     * @param clazz Of the entity that is persisted
+     * @return The number of rows removed.
+     */
+    public <T extends BaseEntity> int delete(Class<T> clazz, Long id) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaDelete<T> criteria = criteriaBuilder.createCriteriaDelete(clazz);
+
+        final Root<T> root = criteria.from(clazz);
+        criteria.where(criteriaBuilder.equal(root.get("id"), id));
+
+        int deleted = entityManager.createQuery(criteria).executeUpdate();
+        if (deleted > 0)
+            recordTombstones(clazz, Collections.singletonList(id));
+        return deleted;
     }
 
 }
@@ -0,0 +1,79 @@
+package ro.devwfw.mfw.repository;
+
+/**
+ * The ChangeCursor is the position of a consumer in the change feed of an
+ * entity type. The changed entities and the tombstones are read as two
+ * streams ordered by timestamp and id, the cursor holds the last position
+ * read in each of them. Ids are never reused, so the two streams can be
+ * applied in any order.
+ * <p>
+ * It is written as <code>updatedAt.updatedId.deletedAt.deletedId</code>, the
+ * timestamps in milliseconds.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class ChangeCursor {
+
+    private final long updatedAt;
+
+    private final long updatedId;
+
+    private final long deletedAt;
+
+    private final long deletedId;
+
+    public ChangeCursor(long updatedAt, long updatedId, long deletedAt, long deletedId) {
+        this.updatedAt = updatedAt;
+        this.updatedId = updatedId;
+        this.deletedAt = deletedAt;
+        this.deletedId = deletedId;
+    }
+
+    /**
+     * @param millis the timestamp of the first changes to be read
+     * @return A cursor before every change made at or after millis
+     */
+    public static ChangeCursor since(long millis) {
+        return new ChangeCursor(millis, 0, millis, 0);
+    }
+
+    /**
+     * @param cursor a cursor written by {@link #toString()}
+     * @return The cursor
+     * @throws InvalidQueryException if the cursor is malformed
+     */
+    public static ChangeCursor parse(String cursor) {
+        String[] parts = cursor.split("\\.");
+        if (parts.length != 4) {
+            throw new InvalidQueryException("Cursor " + cursor + " is not updatedAt.updatedId.deletedAt.deletedId");
+        }
+        try {
+            return new ChangeCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                    Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new InvalidQueryException("Cursor " + cursor + " is not updatedAt.updatedId.deletedAt.deletedId");
+        }
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getUpdatedId() {
+        return updatedId;
+    }
+
+    public long getDeletedAt() {
+        return deletedAt;
+    }
+
+    public long getDeletedId() {
+        return deletedId;
+    }
+
+    @Override
+    public String toString() {
+        return updatedAt + "." + updatedId + "." + deletedAt + "." + deletedId;
+    }
+}
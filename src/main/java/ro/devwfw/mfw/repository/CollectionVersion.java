@@ -0,0 +1,41 @@
+package ro.devwfw.mfw.repository;
+
+import java.util.Date;
+
+/**
+ * The CollectionVersion identifies the state of all the persisted entities of
+ * a type: their number and the latest updtimestamp. Any create, update or
+ * delete changes at least one of them.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class CollectionVersion {
+
+    private final long count;
+
+    /**
+     * the latest updtimestamp, <code>null</code> if there are no entities
+     */
+    private final Date lastModified;
+
+    public CollectionVersion(long count, Date lastModified) {
+        this.count = count;
+        this.lastModified = lastModified;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return a quoted entity tag for this version
+     */
+    public String toETag() {
+        return "\"" + count + "-" + (lastModified != null ? lastModified.getTime() : 0) + "\"";
+    }
+}
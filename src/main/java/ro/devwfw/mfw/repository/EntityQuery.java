@@ -0,0 +1,173 @@
+package ro.devwfw.mfw.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The EntityQuery describes a query on the BaseEntities entities of a type: the
+ * filters, the order, the attributes to be selected or the associations to be
+ * fetched, and the page. Attribute names are paths on the entity, e.g.
+ * <code>description</code> or <code>demoEntity.id</code>, and are validated
+ * against the JPA metamodel when the query is run.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityQuery {
+
+    /**
+     * The comparison of a filter.
+     */
+    public enum Operator {
+        EQ, NE, LT, LE, GT, GE, LIKE, IN, NULL, NOTNULL;
+
+        /**
+         * @param name the operator name, case insensitive
+         * @return The operator
+         * @throws InvalidQueryException if the name is not an operator
+         */
+        public static Operator of(String name) {
+            try {
+                return valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidQueryException("Unknown filter operator " + name
+                        + ", expected one of " + Arrays.toString(values()).toLowerCase());
+            }
+        }
+    }
+
+    /**
+     * A predicate on an attribute. The values are converted to the type of the
+     * attribute when the query is run.
+     */
+    public static class Filter {
+
+        private final String attribute;
+
+        private final Operator operator;
+
+        private final List<String> values;
+
+        public Filter(String attribute, Operator operator, List<String> values) {
+            this.attribute = attribute;
+            this.operator = operator;
+            this.values = values;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public List<String> getValues() {
+            return values;
+        }
+    }
+
+    /**
+     * An ORDER BY item.
+     */
+    public static class Sort {
+
+        private final String attribute;
+
+        private final boolean ascending;
+
+        public Sort(String attribute, boolean ascending) {
+            this.attribute = attribute;
+            this.ascending = ascending;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        public boolean isAscending() {
+            return ascending;
+        }
+    }
+
+    private final List<Filter> filters = new ArrayList<>();
+
+    private final List<Sort> sorts = new ArrayList<>();
+
+    /**
+     * the attributes to be selected, <code>null</code> to select the entities
+     */
+    private List<String> fields;
+
+    /**
+     * the associations fetched with the entities
+     */
+    private List<String> expand = Collections.emptyList();
+
+    private int offset;
+
+    private int limit = Integer.MAX_VALUE;
+
+    public EntityQuery filter(String attribute, Operator operator, String... values) {
+        filters.add(new Filter(attribute, operator, Arrays.asList(values)));
+        return this;
+    }
+
+    public EntityQuery sort(String attribute, boolean ascending) {
+        sorts.add(new Sort(attribute, ascending));
+        return this;
+    }
+
+    public EntityQuery fields(List<String> fields) {
+        this.fields = fields == null ? null : Collections.unmodifiableList(new ArrayList<>(fields));
+        return this;
+    }
+
+    public EntityQuery expand(List<String> expand) {
+        this.expand = Collections.unmodifiableList(new ArrayList<>(expand));
+        return this;
+    }
+
+    public EntityQuery offset(int offset) {
+        this.offset = offset;
+        return this;
+    }
+
+    public EntityQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public List<Filter> getFilters() {
+        return Collections.unmodifiableList(filters);
+    }
+
+    public List<Sort> getSorts() {
+        return Collections.unmodifiableList(sorts);
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public List<String> getExpand() {
+        return expand;
+    }
+
+    /**
+     * @return <code>true</code> if only some attributes are selected
+     */
+    public boolean isProjection() {
+        return fields != null;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,17 @@
+package ro.devwfw.mfw.repository;
+
+/**
+ * Thrown when the input of a query sent by a client is invalid: a filter, a
+ * sort, the fields or the expanded associations which do not match the
+ * metamodel, a malformed cursor, ids or page. Answered with HTTP status 400,
+ * bad request, unlike the IllegalArgumentExceptions of the application code.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class InvalidQueryException extends RuntimeException {
+
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,13 @@
 package ro.devwfw.mfw.service;
 
 import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.repository.ChangeCursor;
+import ro.devwfw.mfw.repository.CollectionVersion;
+import ro.devwfw.mfw.repository.EntityQuery;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The BaseService interface defines all public business behaviors for
@@ -24,6 +29,97 @@ public interface BaseService {
      */
     <T extends BaseEntity> Collection<T> findAll(Class<T> clazz);
 
+    /**
+     * Find all BaseEntities entities, fetching the expanded associations in
+     * the same query.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param expand the single valued associations to be fetched, e.g. demoEntity
+     * @param <T> the class type of BaseEnity
+     * @return A Collection of BaseEnity objects.
+     */
+    <T extends BaseEntity> Collection<T> findAll(Class<T> clazz, Collection<String> expand);
+
+    /**
+     * Counts the BaseEntities entities without loading them.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param <T> the class type of BaseEnity
+     * @return The number of persisted entities.
+     */
+    <T extends BaseEntity> long count(Class<T> clazz);
+
+    /**
+     * Finds the version of all the BaseEntities entities of a type, their
+     * number and latest updtimestamp, with a single aggregate query.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param <T> the class type of BaseEnity
+     * @return The CollectionVersion of the entities.
+     */
+    <T extends BaseEntity> CollectionVersion findVersion(Class<T> clazz);
+
+    /**
+     * Find a page of BaseEntities entities ordered by primary key.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param after the last id of the previous page or <code>null</code> for the first page
+     * @param limit the maximum number of entities to be returned
+     * @param expand the single valued associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects with ids greater than after.
+     */
+    <T extends BaseEntity> List<T> findPage(Class<T> clazz, Long after, int limit, Collection<String> expand);
+
+    /**
+     * Find the most recently updated BaseEntities entities, the ones most
+     * likely to be read next.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param limit the maximum number of entities to be returned
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects ordered by updtimestamp descending.
+     */
+    <T extends BaseEntity> List<T> findRecent(Class<T> clazz, int limit);
+
+    /**
+     * Find the BaseEntities entities created, updated or deleted after a
+     * cursor. Changes newer than baseEntities.changes.lag milliseconds are
+     * left for the next call, so a change committed after a later one was read
+     * is not skipped.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param cursor the position of the last change read
+     * @param limit the maximum number of changed and of deleted entities
+     * @param <T> the class type of BaseEnity
+     * @return A ChangeSet holding the cursor of the next page.
+     */
+    <T extends BaseEntity> ChangeSet<T> findChanges(Class<T> clazz, ChangeCursor cursor, int limit);
+
+    /**
+     * Finds the BaseEntities entities matching an EntityQuery. When the query
+     * selects fields only those are read from the database.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param entityQuery the fields, filters, order and page of the query
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects, or of maps from field to value for a
+     * query with fields.
+     */
+    <T extends BaseEntity> List<?> query(Class<T> clazz, EntityQuery entityQuery);
+
+    /**
+     * Streams all BaseEntities entities to the consumer, in primary key order,
+     * without loading the whole table in memory.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param expand the single valued associations to be fetched
+     * @param consumer receives every entity
+     * @param <T> the class type of BaseEnity
+     * @return The number of entities streamed.
+     */
+    <T extends BaseEntity> long scrollAll(Class<T> clazz, Collection<String> expand, Consumer<? super T> consumer);
+
     /**
      * Find a single BaseEntity entity by primary key identifier.
      *
@@ -34,6 +130,42 @@ public interface BaseService {
      */
     <T extends BaseEntity> T findOne(Class<T> clazz, Long id);
 
+    /**
+     * Find a single BaseEntity entity by primary key identifier only if it is in
+     * the entity cache, the data store is not queried.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param id A Long primary key identifier.
+     * @param <T> the class type of BaseEnity
+     * @return A BaseEnity or <code>null</code> if it is not cached.
+     */
+    <T extends BaseEntity> T findCached(Class<T> clazz, Long id);
+
+    /**
+     * Find the BaseEntity entities with the given primary key identifiers.
+     * Cached entities are served from the entity cache, the others are read
+     * with one <code>IN</code> query per chunk of ids and put in the cache.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param ids primary key identifiers
+     * @param <T> the class type of BaseEnity
+     * @return The entities found, in the order of their first id, ids which do
+     * not exist are skipped.
+     */
+    <T extends BaseEntity> List<T> findMany(Class<T> clazz, Collection<Long> ids);
+
+    /**
+     * Find a single BaseEntity entity by primary key identifier, fetching the
+     * expanded associations in the same query. The entity cache is not used.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param id A Long primary key identifier.
+     * @param expand the single valued associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return A BaseEnity or <code>null</code> if none found.
+     */
+    <T extends BaseEntity> T findOne(Class<T> clazz, Long id, Collection<String> expand);
+
     /**
      * Persists a BaseEntity entity in the data store.
      *
@@ -44,14 +176,51 @@ public interface BaseService {
     <T extends BaseEntity> T create(T baseEntity);
 
     /**
-     * Updates a previously persisted BaseEntity entity in the data store.
+     * Updates a previously persisted BaseEntity entity in the data store. The
+     * entity must carry the updtimestamp it was read at, which must match the
+     * persisted one.
      *
      * @param baseEntity A BaseEntity object to be updated.
      * @param <T> the class type of BaseEnity
      * @return The updated BaseEntity entity.
+     * @throws PreconditionRequiredException if the entity has no updtimestamp
+     * @throws javax.persistence.NoResultException if the entity does not exist
+     * @throws javax.persistence.OptimisticLockException if the entity was modified since it was read
      */
     <T extends BaseEntity> T update(T baseEntity);
 
+    /**
+     * Persists BaseEntity entities in the data store in chunks. Entities with an
+     * id are rejected, the others are created.
+     *
+     * @param baseEntities BaseEntity objects to be persisted.
+     * @param <T> the class type of BaseEnity
+     * @return The result of every item, in request order.
+     */
+    <T extends BaseEntity> List<BatchItemResult> createAll(List<T> baseEntities);
+
+    /**
+     * Updates previously persisted BaseEntity entities in chunks, with the
+     * version check of {@link #update}. Entities without an updtimestamp are
+     * reported as precondition required, entities modified since they were
+     * read as conflicts and entities that do not exist as not found.
+     *
+     * @param baseEntities BaseEntity objects to be updated.
+     * @param <T> the class type of BaseEnity
+     * @return The result of every item, in request order.
+     */
+    <T extends BaseEntity> List<BatchItemResult> updateAll(List<T> baseEntities);
+
+    /**
+     * Removes previously persisted BaseEntity entities in chunks.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param ids primary key identifiers
+     * @param <T> the class type of BaseEnity
+     * @return The result of every item, in request order.
+     */
+    <T extends BaseEntity> List<BatchItemResult> deleteAll(Class<T> clazz, List<Long> ids);
+
     /**
      * Removes a previously persisted BaseEntity entity from the data store.
      *
@@ -62,7 +231,7 @@ public interface BaseService {
     <T extends BaseEntity> void delete(Class<T> clazz, Long id);
 
     /**
-     * Evicts all members of the "baseEntities" cache.
+     * Evicts all members of every entity cache region.
      */
     void evictCache();
 }
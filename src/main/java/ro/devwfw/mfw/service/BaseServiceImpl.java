@@ -3,20 +3,40 @@ package ro.devwfw.mfw.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ro.devwfw.mfw.cache.EntityCache;
+import ro.devwfw.mfw.cache.EntityCacheManager;
+import ro.devwfw.mfw.datasource.RoutingContext;
+import ro.devwfw.mfw.metrics.EntityMetrics;
+import ro.devwfw.mfw.metrics.EntityOperation;
+import ro.devwfw.mfw.metrics.OperationMeter;
 import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.model.EntityTombstone;
 import ro.devwfw.mfw.repository.BaseRepository;
+import ro.devwfw.mfw.repository.ChangeCursor;
+import ro.devwfw.mfw.repository.CollectionVersion;
+import ro.devwfw.mfw.repository.EntityQuery;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.NoResultException;
+import javax.persistence.OptimisticLockException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * The BaseServiceImpl encapsulates all business behaviors operating on the
@@ -34,10 +54,11 @@ public class BaseServiceImpl implements BaseService {
     private Logger logger = LoggerFactory.getLogger(this.getClass());
 
     /**
-     * The <code>CounterService</code> captures metrics for Spring Actuator.
+     * The <code>EntityMetrics</code> captures call counts and latencies per
+     * entity type and operation for Spring Actuator.
      */
     @Autowired
-    private CounterService counterService;
+    private EntityMetrics entityMetrics;
 
     /**
      * The Spring Data repository for BaseEntity entities.
@@ -45,6 +66,32 @@ public class BaseServiceImpl implements BaseService {
     @Autowired
     private BaseRepository baseRepository;
 
+    /**
+     * The entity cache regions, evicted by the batch operations.
+     */
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
+    /**
+     * The number of entities written by a batch operation before the
+     * persistence context is flushed and cleared.
+     */
+    @Value("${baseEntities.batch.chunkSize:50}")
+    private int chunkSize;
+
+    /**
+     * The number of ids read by a single IN query of findMany.
+     */
+    @Value("${baseEntities.ids.chunkSize:500}")
+    private int idsChunkSize;
+
+    /**
+     * milliseconds a change must be old before it is returned by findChanges,
+     * longer than the longest write transaction
+     */
+    @Value("${baseEntities.changes.lag:5000}")
+    private long changesLag;
+
     /**
      * Find all BaseEntities entities.
      *
@@ -53,18 +100,212 @@ public class BaseServiceImpl implements BaseService {
      */
     @Override
     public <T extends BaseEntity> Collection<T> findAll(Class<T> clazz) {
-        logger.info("> findAll");
+        return findAll(clazz, Collections.<String>emptyList());
+    }
 
-        counterService.increment("method.invoked.baseServiceImpl.findAll" + " on " + clazz);
+    /**
+     * Find all BaseEntities entities, fetching the expanded associations in
+     * the same query.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param expand the associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return A Collection of BaseEnity objects.
+     */
+    @Override
+    public <T extends BaseEntity> Collection<T> findAll(Class<T> clazz, Collection<String> expand) {
+        logger.info("> findAll");
 
-        Collection<T> baseEntities = baseRepository.findAll(clazz);
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.FIND_ALL);
+        Collection<T> baseEntities = metered(meter, () -> db(meter, () -> baseRepository.findAll(clazz, expand)));
 
         logger.info("< findAll");
         return baseEntities;
     }
 
+    /**
+     * Counts the BaseEntities entities without loading them.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param <T> the class type of BaseEnity
+     * @return The number of persisted entities.
+     */
+    @Override
+    public <T extends BaseEntity> long count(Class<T> clazz) {
+        logger.info("> count");
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.COUNT);
+        long count = metered(meter, () -> db(meter, () -> baseRepository.count(clazz)));
+
+        logger.info("< count");
+        return count;
+    }
+
+    /**
+     * Finds the version of all the BaseEntities entities of a type, used to
+     * answer conditional requests without loading the entities.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param <T> the class type of BaseEnity
+     * @return The CollectionVersion of the entities.
+     */
+    @Override
+    public <T extends BaseEntity> CollectionVersion findVersion(Class<T> clazz) {
+        logger.info("> findVersion");
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.FIND_VERSION);
+        CollectionVersion version = metered(meter, () -> db(meter, () -> baseRepository.findVersion(clazz)));
+
+        logger.info("< findVersion");
+        return version;
+    }
+
+    /**
+     * Find a page of BaseEntities entities ordered by primary key.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param after the last id of the previous page or <code>null</code> for the first page
+     * @param limit the maximum number of entities to be returned
+     * @param expand the associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects with ids greater than after.
+     */
+    @Override
+    public <T extends BaseEntity> List<T> findPage(Class<T> clazz, Long after, int limit, Collection<String> expand) {
+        logger.info("> findPage after:{} limit:{}", after, limit);
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.FIND_PAGE);
+        List<T> baseEntities = metered(meter, () -> db(meter, () -> baseRepository.findPage(clazz, after, limit, expand)));
+
+        logger.info("< findPage after:{} limit:{}", after, limit);
+        return baseEntities;
+    }
+
+    /**
+     * Find the most recently updated BaseEntities entities.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param limit the maximum number of entities to be returned
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects ordered by updtimestamp descending.
+     */
+    @Override
+    public <T extends BaseEntity> List<T> findRecent(Class<T> clazz, int limit) {
+        logger.info("> findRecent limit:{}", limit);
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.FIND_RECENT);
+        List<T> baseEntities = metered(meter, () -> db(meter, () -> baseRepository.findRecent(clazz, limit)));
+
+        logger.info("< findRecent limit:{}", limit);
+        return baseEntities;
+    }
+
+    /**
+     * Find the BaseEntities entities created, updated or deleted after a cursor.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param cursor the position of the last change read
+     * @param limit the maximum number of changed and of deleted entities
+     * @param <T> the class type of BaseEnity
+     * @return A ChangeSet holding the cursor of the next page.
+     */
+    @Override
+    @Transactional(
+            propagation = Propagation.REQUIRED,
+            readOnly = true)
+    public <T extends BaseEntity> ChangeSet<T> findChanges(Class<T> clazz, ChangeCursor cursor, int limit) {
+        logger.info("> findChanges cursor:{} limit:{}", cursor, limit);
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.FIND_CHANGES);
+        ChangeSet<T> changeSet = metered(meter, () -> {
+            Timestamp until = new Timestamp(System.currentTimeMillis() - changesLag);
+            List<T> changed = db(meter, () -> baseRepository.findChanged(clazz, cursor, until, limit));
+            List<EntityTombstone> tombstones = db(meter, () -> baseRepository.findDeleted(clazz, cursor, until, limit));
+            return toChangeSet(cursor, limit, changed, tombstones);
+        });
+
+        logger.info("< findChanges cursor:{} changed:{} deleted:{}", changeSet.getCursor(),
+                changeSet.getChanged().size(), changeSet.getDeleted().size());
+        return changeSet;
+    }
+
+    private <T extends BaseEntity> ChangeSet<T> toChangeSet(ChangeCursor cursor, int limit, List<T> changed,
+                                                            List<EntityTombstone> tombstones) {
+        long updatedAt = cursor.getUpdatedAt();
+        long updatedId = cursor.getUpdatedId();
+        if (!changed.isEmpty()) {
+            T last = changed.get(changed.size() - 1);
+            updatedAt = last.getUpdtimestamp().getTime();
+            updatedId = last.getId();
+        }
+        long deletedAt = cursor.getDeletedAt();
+        long deletedId = cursor.getDeletedId();
+        List<Long> deleted = new ArrayList<>(tombstones.size());
+        for (EntityTombstone tombstone : tombstones) {
+            deleted.add(tombstone.getEntityId());
+            deletedAt = tombstone.getDeletedAt().getTime();
+            deletedId = tombstone.getId();
+        }
+        ChangeCursor next = new ChangeCursor(updatedAt, updatedId, deletedAt, deletedId);
+        return new ChangeSet<T>(changed, deleted, next.toString(),
+                changed.size() == limit || tombstones.size() == limit);
+    }
+
+    /**
+     * Finds the BaseEntities entities matching an EntityQuery. When the query
+     * selects fields only those are read from the database.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param entityQuery the fields, filters, order and page of the query
+     * @param <T> the class type of BaseEnity
+     * @return A List of BaseEnity objects, or of maps from field to value for a
+     * query with fields.
+     */
+    @Override
+    public <T extends BaseEntity> List<?> query(Class<T> clazz, EntityQuery entityQuery) {
+        logger.info("> query");
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.QUERY);
+        List<?> results = metered(meter, () -> entityQuery.isProjection()
+                ? db(meter, () -> baseRepository.findProjection(clazz, entityQuery))
+                : db(meter, () -> baseRepository.findByQuery(clazz, entityQuery)));
+
+        logger.info("< query");
+        return results;
+    }
+
+    /**
+     * Streams all BaseEntities entities to the consumer. The cursor needs an
+     * open connection for the whole iteration so this runs in a read only
+     * transaction.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param expand the associations to be fetched
+     * @param consumer receives every entity
+     * @param <T> the class type of BaseEnity
+     * @return The number of entities streamed.
+     */
+    @Override
+    @Transactional(
+            propagation = Propagation.REQUIRED,
+            readOnly = true)
+    public <T extends BaseEntity> long scrollAll(Class<T> clazz, Collection<String> expand, Consumer<? super T> consumer) {
+        logger.info("> scrollAll");
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.SCROLL_ALL);
+        // the fetches are interleaved with the consumer, only the call is timed
+        long count = metered(meter, () -> baseRepository.scrollAll(clazz, expand, consumer));
+
+        logger.info("< scrollAll count:{}", count);
+        return count;
+    }
+
     /**
      * Finds the persisted object giving the primary key identifier and the class type.
+     * The object is read from the entity cache, a miss is read from the primary in
+     * this method and put in the cache. Concurrent misses of the same id wait for a
+     * single read, an id which does not exist is read once and not cached. Every
+     * call is measured, the reads of the misses are the database round trips.
      *
      * @param clazz of the entity that is persisted
      * @param id    A Long primary key identifier.
@@ -72,20 +313,118 @@ public class BaseServiceImpl implements BaseService {
      * @return The object of the type class and identified by id
      */
     @Override
-    @Cacheable(
-            value = "baseEntities",
-            key = "#id")
     public <T extends BaseEntity> T findOne(Class<T> clazz, Long id) {
         logger.info("> findOne id:{}", id);
 
-        counterService.increment("method.invoked.baseServiceImpl.findOne" + " on " + clazz);
-
-        T t = (T) baseRepository.findOne(clazz, id);
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.FIND_ONE);
+        EntityCache cache = entityCacheManager.getCache(clazz);
+        T t = metered(meter, () -> cache != null
+                // a lagging replica would leave a stale entity in the cache
+                ? clazz.cast(cache.get(id, () -> RoutingContext.onPrimary(() -> load(clazz, id, meter))))
+                : load(clazz, id, meter));
 
         logger.info("< findOne id:{}", id);
         return t;
     }
 
+    private <T extends BaseEntity> T load(Class<T> clazz, Long id, OperationMeter meter) {
+        return db(meter, () -> (T) baseRepository.findOne(clazz, id));
+    }
+
+    /**
+     * Finds the object giving the primary key identifier if it is in the entity
+     * cache, without querying the data store. A hit is measured as a findOne
+     * call, a miss is not, the caller goes on with findOne.
+     *
+     * @param clazz of the entity that is persisted
+     * @param id    A Long primary key identifier.
+     * @param <T> the class type of BaseEnity
+     * @return The cached object or <code>null</code>
+     */
+    @Override
+    public <T extends BaseEntity> T findCached(Class<T> clazz, Long id) {
+        long start = System.nanoTime();
+        EntityCache cache = entityCacheManager.getCache(clazz);
+        T t = cache != null ? clazz.cast(cache.getIfPresent(id)) : null;
+        if (t != null)
+            entityMetrics.meter(clazz, EntityOperation.FIND_ONE).record(System.nanoTime() - start);
+        return t;
+    }
+
+    /**
+     * Finds the persisted objects giving their primary key identifiers. The
+     * cached ones are not queried, the misses are read with one IN query per
+     * chunk of baseEntities.ids.chunkSize ids and added to the cache.
+     *
+     * @param clazz of the entity that is persisted
+     * @param ids   primary key identifiers
+     * @param <T> the class type of BaseEnity
+     * @return The objects found, in the order of their first id
+     */
+    @Override
+    public <T extends BaseEntity> List<T> findMany(Class<T> clazz, Collection<Long> ids) {
+        logger.info("> findMany size:{}", ids.size());
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.FIND_MANY);
+        EntityCache cache = entityCacheManager.getCache(clazz);
+        Map<Long, T> found = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        List<T> baseEntities = metered(meter, () -> {
+            for (Long id : ids) {
+                if (id == null || found.containsKey(id))
+                    continue;
+                T cached = cache != null ? clazz.cast(cache.getIfPresent(id)) : null;
+                found.put(id, cached);
+                if (cached == null)
+                    misses.add(id);
+            }
+
+            for (int from = 0; from < misses.size(); from += idsChunkSize) {
+                List<Long> chunk = misses.subList(from, Math.min(from + idsChunkSize, misses.size()));
+                // the rows fill the cache, a lagging replica would leave them stale
+                List<T> loaded = RoutingContext.onPrimary(() -> db(meter, () -> baseRepository.findByIds(clazz, chunk)));
+                for (T baseEntity : loaded) {
+                    found.put(baseEntity.getId(), baseEntity);
+                    if (cache != null)
+                        // an entry loaded by a reader in the meantime is as fresh
+                        cache.putIfAbsent(baseEntity.getId(), baseEntity);
+                }
+            }
+
+            List<T> foundEntities = new ArrayList<>(found.size());
+            for (T baseEntity : found.values()) {
+                if (baseEntity != null)
+                    foundEntities.add(baseEntity);
+            }
+            return foundEntities;
+        });
+
+        logger.info("< findMany size:{} cached:{} found:{}", ids.size(), found.size() - misses.size(), baseEntities.size());
+        return baseEntities;
+    }
+
+    /**
+     * Finds the persisted object giving the primary key identifier, fetching the
+     * expanded associations in the same query. The result depends on the
+     * expanded associations, so it is neither read from nor put in the cache.
+     *
+     * @param clazz of the entity that is persisted
+     * @param id    A Long primary key identifier.
+     * @param expand the associations to be fetched
+     * @param <T> the class type of BaseEnity
+     * @return The object of the type class and identified by id
+     */
+    @Override
+    public <T extends BaseEntity> T findOne(Class<T> clazz, Long id, Collection<String> expand) {
+        logger.info("> findOne id:{} expand:{}", id, expand);
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.FIND_ONE);
+        T t = metered(meter, () -> db(meter, () -> baseRepository.findOne(clazz, id, expand)));
+
+        logger.info("< findOne id:{} expand:{}", id, expand);
+        return t;
+    }
+
     /**
      * Persists a BaseEntity entity in the data store.
      *
@@ -98,58 +437,313 @@ public class BaseServiceImpl implements BaseService {
             propagation = Propagation.REQUIRED,
             readOnly = false)
     @CachePut(
-            value = "baseEntities",
+            cacheResolver = "entityCacheResolver",
             key = "#result.id")
     public <T extends BaseEntity> T create(T objT) {
         logger.info("> create");
 
-        counterService.increment("method.invoked.baseServiceImpl.create" + " on " + objT.getClass());
-
-        if (objT.getId() != null) {
-            // Cannot create BaseEntity with specified ID value
-            logger.error(
-                    "Attempted to create a BaseEntity, but id attribute was not null.");
-            throw new EntityExistsException(
-                    "The id attribute must be null to persist a new entity.");
-        }
-
-        T objTsaved = (T) baseRepository.create(objT);
+        OperationMeter meter = entityMetrics.meter(objT.getClass(), EntityOperation.CREATE);
+        T objTsaved = metered(meter, () -> {
+            if (objT.getId() != null) {
+                // Cannot create BaseEntity with specified ID value
+                logger.error(
+                        "Attempted to create a BaseEntity, but id attribute was not null.");
+                throw new EntityExistsException(
+                        "The id attribute must be null to persist a new entity.");
+            }
+            return db(meter, () -> (T) baseRepository.create(objT));
+        });
 
         logger.info("< create");
         return objTsaved;
     }
 
     /**
-     * Updates a previously persisted BaseEntity entity in the data store.
+     * Updates a previously persisted BaseEntity entity in the data store with
+     * a single statement. The updtimestamp of the entity is the version it was
+     * read at: if the row has a different one the update is rejected with an
+     * OptimisticLockException, if the entity has none it is rejected with a
+     * PreconditionRequiredException, so an update never overwrites a change it
+     * did not see. The updated entity is evicted from the cache.
      *
      * @param objT A BaseEntity object to be updated.
      * @param <T> the class type of BaseEnity
-     * @return The updated BaseEntity entity.
+     * @return The updated BaseEntity entity, with its new updtimestamp.
      */
     @Override
     @Transactional(
             propagation = Propagation.REQUIRED,
             readOnly = false)
-    @CachePut(
-            value = "baseEntities",
+    @CacheEvict(
+            cacheResolver = "entityCacheResolver",
             key = "#objT.id")
     public <T extends BaseEntity> T update(T objT) {
         logger.info("> update id:{}", objT.getId());
 
-        counterService.increment("method.invoked.baseServiceImpl.update" + " on " + objT.getClass());
+        OperationMeter meter = entityMetrics.meter(objT.getClass(), EntityOperation.UPDATE);
+        metered(meter, () -> {
+            if (objT.getId() != null && objT.getUpdtimestamp() == null) {
+                // Cannot update BaseEntity without the version it was read at
+                logger.error(
+                        "Attempted to update a BaseEntity, but the updtimestamp attribute was null.");
+                throw new PreconditionRequiredException(
+                        "The updtimestamp the entity was read at, or an If-Match header, is required to update it.");
+            }
 
-        T objTfind = (T) findOne(objT.getClass(), objT.getId());
-        if (objTfind == null) {
-            // Cannot update BaseEntity that hasn't been persisted
-            logger.error(
-                    "Attempted to update a BaseEntity, but the entity does not exist.");
-            throw new NoResultException("Requested entity not found.");
+            int updated = objT.getId() != null ? db(meter, () -> baseRepository.updateIfUnmodified(objT)) : 0;
+            if (updated == 0) {
+                if (objT.getId() == null || findExistingIds(objT.getClass(),
+                        Collections.singletonList(objT.getId()), meter).isEmpty()) {
+                    // Cannot update BaseEntity that hasn't been persisted
+                    logger.error(
+                            "Attempted to update a BaseEntity, but the entity does not exist.");
+                    throw new NoResultException("Requested entity not found.");
+                }
+                // The BaseEntity was modified since the client read it
+                logger.error(
+                        "Attempted to update a BaseEntity, but the updtimestamp does not match.");
+                throw new OptimisticLockException(
+                        "The entity was modified by another transaction.", null, objT);
+            }
+            return updated;
+        });
+
+        logger.info("< update id:{}", objT.getId());
+        return objT;
+    }
+
+    /**
+     * Persists BaseEntity entities in the data store in chunks. Entities with an
+     * id are rejected, the others are created in a single transaction.
+     *
+     * @param baseEntities BaseEntity objects to be persisted.
+     * @param <T> the class type of BaseEnity
+     * @return The result of every item, in request order.
+     */
+    @Override
+    @Transactional(
+            propagation = Propagation.REQUIRED,
+            readOnly = false)
+    public <T extends BaseEntity> List<BatchItemResult> createAll(List<T> baseEntities) {
+        logger.info("> createAll size:{}", baseEntities.size());
+
+        OperationMeter meter = entityMetrics.meter(entityClassOf(baseEntities), EntityOperation.CREATE_ALL);
+        List<BatchItemResult> results = metered(meter, () -> {
+            boolean[] rejected = new boolean[baseEntities.size()];
+            List<T> valid = new ArrayList<>(baseEntities.size());
+            for (int i = 0; i < baseEntities.size(); i++) {
+                T objT = baseEntities.get(i);
+                rejected[i] = objT == null || objT.getId() != null;
+                if (!rejected[i])
+                    valid.add(objT);
+            }
+            db(meter, () -> baseRepository.createAll(valid, chunkSize));
+
+            List<BatchItemResult> itemResults = new ArrayList<>(baseEntities.size());
+            for (int i = 0; i < baseEntities.size(); i++) {
+                T objT = baseEntities.get(i);
+                if (rejected[i])
+                    itemResults.add(new BatchItemResult(i, objT != null ? objT.getId() : null, BatchItemResult.Status.REJECTED,
+                            "The id attribute must be null to persist a new entity."));
+                else
+                    itemResults.add(new BatchItemResult(i, objT.getId(), BatchItemResult.Status.CREATED));
+            }
+            return itemResults;
+        });
+
+        logger.info("< createAll size:{}", baseEntities.size());
+        return results;
+    }
+
+    /**
+     * Updates previously persisted BaseEntity entities in chunks. Every entity
+     * is updated with the single statement of {@link #update}, only if the row
+     * still has its updtimestamp, and gets a new one. The items which updated
+     * no row are told apart with a single query per chunk, as conflicts if
+     * they exist and as not found otherwise. The updated entities are evicted
+     * from the cache.
+     *
+     * @param baseEntities BaseEntity objects to be updated.
+     * @param <T> the class type of BaseEnity
+     * @return The result of every item, in request order.
+     */
+    @Override
+    @Transactional(
+            propagation = Propagation.REQUIRED,
+            readOnly = false)
+    public <T extends BaseEntity> List<BatchItemResult> updateAll(List<T> baseEntities) {
+        logger.info("> updateAll size:{}", baseEntities.size());
+
+        Class<? extends BaseEntity> clazz = entityClassOf(baseEntities);
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.UPDATE_ALL);
+        BatchItemResult[] results = new BatchItemResult[baseEntities.size()];
+        metered(meter, () -> {
+            for (int from = 0; from < baseEntities.size(); from += chunkSize) {
+                List<T> chunk = baseEntities.subList(from, Math.min(from + chunkSize, baseEntities.size()));
+
+                List<T> versioned = new ArrayList<>(chunk.size());
+                List<Integer> versionedIndexes = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    T objT = chunk.get(i);
+                    if (objT == null || objT.getId() == null) {
+                        results[from + i] = new BatchItemResult(from + i, null, BatchItemResult.Status.REJECTED,
+                                "The id attribute must not be null to update an entity.");
+                    } else if (objT.getUpdtimestamp() == null) {
+                        results[from + i] = new BatchItemResult(from + i, objT.getId(),
+                                BatchItemResult.Status.PRECONDITION_REQUIRED,
+                                "The updtimestamp the entity was read at is required to update it.");
+                    } else {
+                        versioned.add(objT);
+                        versionedIndexes.add(from + i);
+                    }
+                }
+
+                int[] updated = db(meter, () -> baseRepository.updateAll(versioned));
+
+                List<Integer> unmodified = new ArrayList<>(versioned.size());
+                for (int k = 0; k < versioned.size(); k++) {
+                    int index = versionedIndexes.get(k);
+                    if (updated[k] > 0)
+                        results[index] = new BatchItemResult(index, versioned.get(k).getId(), BatchItemResult.Status.UPDATED);
+                    else
+                        unmodified.add(index);
+                }
+
+                List<Long> missed = new ArrayList<>(unmodified.size());
+                for (int index : unmodified) {
+                    missed.add(baseEntities.get(index).getId());
+                }
+                Set<Long> existing = findExistingIds(clazz, missed, meter);
+                for (int index : unmodified) {
+                    Long id = baseEntities.get(index).getId();
+                    if (existing.contains(id)) {
+                        results[index] = new BatchItemResult(index, id, BatchItemResult.Status.CONFLICT,
+                                "The entity was modified by another transaction.");
+                    } else {
+                        results[index] = new BatchItemResult(index, id, BatchItemResult.Status.NOT_FOUND,
+                                "Requested entity not found.");
+                    }
+                }
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (results[from + i].getStatus() == BatchItemResult.Status.UPDATED)
+                        evict(clazz, chunk.get(i).getId());
+                }
+            }
+            return results;
+        });
+
+        logger.info("< updateAll size:{}", baseEntities.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Removes previously persisted BaseEntity entities in chunks, one delete
+     * statement per chunk, and evicts them from the cache.
+     *
+     * @param clazz Of the entity that is persisted
+     * @param ids primary key identifiers
+     * @param <T> the class type of BaseEnity
+     * @return The result of every item, in request order.
+     */
+    @Override
+    @Transactional(
+            propagation = Propagation.REQUIRED,
+            readOnly = false)
+    public <T extends BaseEntity> List<BatchItemResult> deleteAll(Class<T> clazz, List<Long> ids) {
+        logger.info("> deleteAll size:{}", ids.size());
+
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.DELETE_ALL);
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        metered(meter, () -> {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                Set<Long> existing = findExistingIds(clazz, chunk, meter);
+                if (!existing.isEmpty())
+                    db(meter, () -> baseRepository.deleteAll(clazz, existing));
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    Long id = chunk.get(i);
+                    if (existing.contains(id)) {
+                        evict(clazz, id);
+                        results.add(new BatchItemResult(from + i, id, BatchItemResult.Status.DELETED));
+                    } else {
+                        results.add(new BatchItemResult(from + i, id, BatchItemResult.Status.NOT_FOUND,
+                                "Requested entity not found."));
+                    }
+                }
+            }
+            return results;
+        });
+
+        logger.info("< deleteAll size:{}", ids.size());
+        return results;
+    }
+
+    private Class<? extends BaseEntity> entityClassOf(List<? extends BaseEntity> baseEntities) {
+        for (BaseEntity baseEntity : baseEntities) {
+            if (baseEntity != null)
+                return baseEntity.getClass();
+        }
+        return null;
+    }
+
+    private Set<Long> findExistingIds(Class<? extends BaseEntity> clazz, Collection<Long> ids, OperationMeter meter) {
+        Set<Long> existing = new HashSet<>();
+        List<Long> nonNullIds = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (id != null)
+                nonNullIds.add(id);
         }
+        if (clazz != null && !nonNullIds.isEmpty())
+            existing.addAll(db(meter, () -> baseRepository.findIds(clazz, nonNullIds)));
+        return existing;
+    }
 
-        T objTupdated = (T) baseRepository.update(objT);
+    /**
+     * Runs a call of an operation and records its latency in the meter, as an
+     * error if it throws.
+     *
+     * @param meter the meter of the operation
+     * @param call  the work of the call
+     * @param <R>   the type of the result
+     * @return the result of the call
+     */
+    private static <R> R metered(OperationMeter meter, Supplier<R> call) {
+        long start = System.nanoTime();
+        R result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            meter.recordError(System.nanoTime() - start);
+            throw e;
+        }
+        meter.record(System.nanoTime() - start);
+        return result;
+    }
 
-        logger.info("< update id:{}", objTupdated.getId());
-        return objTupdated;
+    /**
+     * Runs a database round trip of a call and records its latency in the
+     * database histogram of the meter.
+     *
+     * @param meter     the meter of the operation
+     * @param roundTrip the repository call
+     * @param <R>       the type of the result
+     * @return the result of the repository call
+     */
+    private static <R> R db(OperationMeter meter, Supplier<R> roundTrip) {
+        long start = System.nanoTime();
+        try {
+            return roundTrip.get();
+        } finally {
+            meter.recordDb(System.nanoTime() - start);
+        }
+    }
+
+    private void evict(Class<?> clazz, Long id) {
+        EntityCache cache = entityCacheManager.getCache(clazz);
+        if (cache != null)
+            cache.evict(id);
     }
 
     /**
@@ -164,24 +758,23 @@ public class BaseServiceImpl implements BaseService {
             propagation = Propagation.REQUIRED,
             readOnly = false)
     @CacheEvict(
-            value = "baseEntities",
+            cacheResolver = "entityCacheResolver",
             key = "#id")
     public <T extends BaseEntity> void delete(Class<T> clazz, Long id) {
         logger.info("> delete id:{}", id);
 
-        counterService.increment("method.invoked.baseServiceImpl.delete" + " on " + clazz);
-
-        baseRepository.delete(clazz, id);
+        OperationMeter meter = entityMetrics.meter(clazz, EntityOperation.DELETE);
+        int deleted = metered(meter, () -> db(meter, () -> baseRepository.delete(clazz, id)));
 
-        logger.info("< delete id:{}", id);
+        logger.info("< delete id:{} deleted:{}", id, deleted);
     }
 
     /**
-     * Evicts all members of the "baseEntities" cache.
+     * Evicts all members of every entity cache region.
      */
     @Override
     @CacheEvict(
-            value = "baseEntities",
+            cacheResolver = "entityCacheResolver",
             allEntries = true)
     public void evictCache() {
         logger.info("> evictCache");
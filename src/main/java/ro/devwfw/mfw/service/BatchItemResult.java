@@ -0,0 +1,70 @@
+package ro.devwfw.mfw.service;
+
+/**
+ * The BatchItemResult describes the outcome of a single item of a batch
+ * create, update or delete operation.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class BatchItemResult {
+
+    /**
+     * The outcome of a batch item.
+     */
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND, REJECTED,
+        /**
+         * an update without the updtimestamp the entity was read at
+         */
+        PRECONDITION_REQUIRED,
+        /**
+         * an update of an entity modified since it was read
+         */
+        CONFLICT
+    }
+
+    /**
+     * the position of the item in the request
+     */
+    private final int index;
+
+    /**
+     * the primary key identifier of the entity, if known
+     */
+    private final Long id;
+
+    private final Status status;
+
+    /**
+     * the reason an item was not processed, <code>null</code> on success
+     */
+    private final String message;
+
+    public BatchItemResult(int index, Long id, Status status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public BatchItemResult(int index, Long id, Status status) {
+        this(index, id, status, null);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
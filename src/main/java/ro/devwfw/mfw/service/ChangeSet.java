@@ -0,0 +1,58 @@
+package ro.devwfw.mfw.service;
+
+import ro.devwfw.mfw.model.BaseEntity;
+
+import java.util.List;
+
+/**
+ * The ChangeSet is a page of the change feed of an entity type: the entities
+ * created or updated and the ids of the entities deleted since a cursor.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class ChangeSet<T extends BaseEntity> {
+
+    /**
+     * the entities created or updated, ordered by updtimestamp
+     */
+    private final List<T> changed;
+
+    /**
+     * the ids of the deleted entities, ordered by deletion time
+     */
+    private final List<Long> deleted;
+
+    /**
+     * the cursor from which the next page is read
+     */
+    private final String cursor;
+
+    /**
+     * <code>true</code> if the next page is not empty, as far as known
+     */
+    private final boolean more;
+
+    public ChangeSet(List<T> changed, List<Long> deleted, String cursor, boolean more) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.cursor = cursor;
+        this.more = more;
+    }
+
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public boolean isMore() {
+        return more;
+    }
+}
@@ -0,0 +1,16 @@
+package ro.devwfw.mfw.service;
+
+/**
+ * Thrown when a write needs the version the client read the entity at, the
+ * updtimestamp of the body or an If-Match header, and the request has none.
+ * Answered with HTTP status 428, precondition required.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class PreconditionRequiredException extends RuntimeException {
+
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
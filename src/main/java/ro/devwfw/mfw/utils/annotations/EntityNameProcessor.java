@@ -0,0 +1,104 @@
+package ro.devwfw.mfw.utils.annotations;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The EntityNameProcessor writes at compile time an index of the classes annotated
+ * with @EntityName, so that the entities can be mapped at runtime without scanning
+ * the classpath. The index is a properties file with one entity name and class per
+ * line, stored at {@link #INDEX_LOCATION}.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@SupportedAnnotationTypes("ro.devwfw.mfw.utils.annotations.EntityName")
+public class EntityNameProcessor extends AbstractProcessor {
+
+    /**
+     * location of the generated index on the classpath
+     */
+    public static final String INDEX_LOCATION = "META-INF/mfw/entity-names.properties";
+
+    /**
+     * the type every entity must extend
+     */
+    private static final String BASE_ENTITY = "ro.devwfw.mfw.model.BaseEntity";
+
+    /**
+     * entity classes by entity name, collected over all rounds
+     */
+    private final Map<String, String> index = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!index.isEmpty()) {
+                writeIndex();
+            }
+            return false;
+        }
+
+        TypeElement baseEntity = processingEnv.getElementUtils().getTypeElement(BASE_ENTITY);
+        for (Element element : roundEnv.getElementsAnnotatedWith(EntityName.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            TypeMirror erasure = baseEntity != null ? processingEnv.getTypeUtils().erasure(baseEntity.asType()) : null;
+            if (erasure != null && !processingEnv.getTypeUtils().isAssignable(type.asType(), erasure)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@EntityName can only be used on classes extending " + BASE_ENTITY, element);
+                continue;
+            }
+
+            String name = type.getAnnotation(EntityName.class).value();
+            String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+            String previous = index.put(name, className);
+            if (previous != null && !previous.equals(className)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "The entity name \"" + name + "\" is already used by " + previous, element);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the collected entity names and classes, sorted by name.
+     */
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.ISO_8859_1)) {
+                writer.write("# Generated by " + getClass().getName() + ", do not edit\n");
+                for (Map.Entry<String, String> entry : index.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write the entity index " + INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+}
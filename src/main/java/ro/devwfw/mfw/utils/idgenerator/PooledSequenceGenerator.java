@@ -0,0 +1,44 @@
+package ro.devwfw.mfw.utils.idgenerator;
+
+import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * The PooledSequenceGenerator assigns the ids of an entity from its own
+ * sequence, named after the entity with the _SEQ suffix, e.g.
+ * <code>DemoEntity_SEQ</code>. Every value read from the sequence reserves the
+ * next allocationSize ids with the pooled optimizer, so the id of an entity is
+ * known before its INSERT and the inserts of a flush are sent as JDBC batches,
+ * which IDENTITY columns prevent.
+ * <p>
+ * A value v of the sequence reserves the ids from v - allocationSize + 1 to v,
+ * so the sequences must be incremented by the allocation size and start at
+ * least at the allocation size plus the greatest existing id, see
+ * <code>data/hsqldb/schema.sql</code>. The {@link PooledSequenceValidator}
+ * checks the increments at startup.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * the ids reserved by a call of the sequence, the increment of the
+     * sequences
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, Dialect dialect) throws MappingException {
+        Properties pooled = new Properties();
+        pooled.putAll(params);
+        pooled.setProperty(CONFIG_PREFER_SEQUENCE_PER_ENTITY, "true");
+        pooled.setProperty(INCREMENT_PARAM, String.valueOf(ALLOCATION_SIZE));
+        pooled.setProperty(OPT_PARAM, "pooled");
+        super.configure(type, pooled, dialect);
+    }
+}
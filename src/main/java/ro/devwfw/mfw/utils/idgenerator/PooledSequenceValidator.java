@@ -0,0 +1,67 @@
+package ro.devwfw.mfw.utils.idgenerator;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The PooledSequenceValidator checks at startup that the sequence of every
+ * entity whose ids are assigned by the {@link PooledSequenceGenerator} is
+ * incremented by {@link PooledSequenceGenerator#ALLOCATION_SIZE}, as read
+ * from INFORMATION_SCHEMA.SEQUENCES. With another increment two calls of the
+ * sequence would reserve overlapping ids, so the application does not start.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class PooledSequenceValidator {
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    private void validateSequences() throws SQLException {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = UPPER(?)")) {
+            for (EntityPersister persister : sessionFactory.getEntityPersisters().values()) {
+                IdentifierGenerator generator = persister.getIdentifierGenerator();
+                if (!(generator instanceof PooledSequenceGenerator))
+                    continue;
+                String sequence = ((PooledSequenceGenerator) generator).getDatabaseStructure().getName();
+                statement.setString(1, sequence);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new IllegalStateException("The sequence " + sequence + " of "
+                                + persister.getEntityName() + " does not exist");
+                    }
+                    long increment = Long.parseLong(resultSet.getString(1).trim());
+                    if (increment != PooledSequenceGenerator.ALLOCATION_SIZE) {
+                        throw new IllegalStateException("The sequence " + sequence + " is incremented by " + increment
+                                + ", the ids of " + persister.getEntityName() + " are allocated by "
+                                + PooledSequenceGenerator.ALLOCATION_SIZE);
+                    }
+                }
+                logger.info("- validateSequences sequence:{} increment:{}", sequence, PooledSequenceGenerator.ALLOCATION_SIZE);
+            }
+        }
+    }
+}
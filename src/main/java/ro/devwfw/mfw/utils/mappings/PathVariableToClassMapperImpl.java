@@ -1,31 +1,49 @@
 package ro.devwfw.mfw.utils.mappings;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.util.ClassUtils;
 import ro.devwfw.mfw.model.BaseEntity;
 import ro.devwfw.mfw.utils.annotations.EntityName;
+import ro.devwfw.mfw.utils.annotations.EntityNameProcessor;
 
 import javax.annotation.PostConstruct;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 
 /**
  * The PathVariableToClassMapperImpl is used to map at runtime entities annotated withe @EntityName
  * so that you know what class to persist.
+ * <p>
+ * The mappings are read from the index generated at compile time by the
+ * {@link EntityNameProcessor}. The package is scanned only when no index is found
+ * on the classpath or the index is disabled.
  *
  * @author LaurentiuM
  * @version createdOn: 12/27/15
  */
 public class PathVariableToClassMapperImpl implements PathVariableToClassMapper {
 
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
     /**
      * pakeget to scan for annotation @EntityName
      */
     @Value("${packageToBeScanned.by.entityName}")
     private String packageToBeScanned;
+    /**
+     * read the mappings from the generated index instead of scanning the package
+     */
+    @Value("${entityName.index.enabled:true}")
+    private boolean indexEnabled = true;
     /**
      * map containing entities names and classes of the entities
      */
@@ -52,6 +70,53 @@ public class PathVariableToClassMapperImpl implements PathVariableToClassMapper
      */
     @PostConstruct
     private Map<String, Class<? extends BaseEntity>> createMappings() throws ClassNotFoundException {
+        if (indexEnabled) {
+            mappings = loadIndex();
+            if (mappings != null) {
+                logger.info("Mapped {} entities from the index {}", mappings.size(), EntityNameProcessor.INDEX_LOCATION);
+                return mappings;
+            }
+        }
+        mappings = scanPackage();
+        logger.info("Mapped {} entities by scanning {}", mappings != null ? mappings.size() : 0, packageToBeScanned);
+        return mappings;
+    }
+
+    /**
+     * Reads the mappings of the classes in packageToBeScanned from the indexes generated by the
+     * EntityNameProcessor.
+     *
+     * @return A map contining fo entity name and class, or <code>null</code> if no index was found.
+     * @throws ClassNotFoundException if an indexed class is not found
+     */
+    private Map<String, Class<? extends BaseEntity>> loadIndex() throws ClassNotFoundException {
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        Properties index;
+        try {
+            index = PropertiesLoaderUtils.loadAllProperties(EntityNameProcessor.INDEX_LOCATION, classLoader);
+        } catch (IOException e) {
+            logger.warn("Could not read the entity index {}: {}", EntityNameProcessor.INDEX_LOCATION, e.getMessage());
+            return null;
+        }
+
+        Map<String, Class<? extends BaseEntity>> indexed = new HashMap<>();
+        for (String name : index.stringPropertyNames()) {
+            String className = index.getProperty(name);
+            if (className.startsWith(packageToBeScanned + ".")) {
+                indexed.put(name, (Class<? extends BaseEntity>) ClassUtils.forName(className, classLoader));
+            }
+        }
+        return indexed.isEmpty() ? null : indexed;
+    }
+
+    /**
+     * Scans packageToBeScanned for the entities annotated with @EntityName.
+     *
+     * @return A map contining fo entity name and class.
+     * @throws ClassNotFoundException if the class is not found
+     */
+    private Map<String, Class<? extends BaseEntity>> scanPackage() throws ClassNotFoundException {
+        Map<String, Class<? extends BaseEntity>> scanned = null;
 
         ClassPathScanningCandidateComponentProvider scanner =
                 new ClassPathScanningCandidateComponentProvider(false);
@@ -60,15 +125,15 @@ public class PathVariableToClassMapperImpl implements PathVariableToClassMapper
 
         Set<BeanDefinition> candidateComponents = scanner.findCandidateComponents(packageToBeScanned);
         if (candidateComponents.size() > 0) {
-            mappings = new HashMap<>();
+            scanned = new HashMap<>();
             for (BeanDefinition bd : candidateComponents) {
                 Class clazz = Class.forName(bd.getBeanClassName());
                 EntityName annotation = (EntityName) clazz.getAnnotation(EntityName.class);
                 if (annotation != null)
-                    mappings.put(annotation.value(), clazz);
+                    scanned.put(annotation.value(), clazz);
             }
         }
-        return mappings;
+        return scanned;
     }
 
     /**
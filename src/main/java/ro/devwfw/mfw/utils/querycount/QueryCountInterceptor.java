@@ -0,0 +1,20 @@
+package ro.devwfw.mfw.utils.querycount;
+
+import org.hibernate.EmptyInterceptor;
+
+/**
+ * Hibernate interceptor counting the prepared SQL statements in the {@link QueryCounter}.
+ * It is registered for the whole session factory with
+ * <code>spring.jpa.properties.hibernate.ejb.interceptor</code>.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class QueryCountInterceptor extends EmptyInterceptor {
+
+    @Override
+    public String onPrepareStatement(String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
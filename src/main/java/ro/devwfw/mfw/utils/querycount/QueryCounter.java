@@ -0,0 +1,77 @@
+package ro.devwfw.mfw.utils.querycount;
+
+import java.util.function.Supplier;
+
+/**
+ * The QueryCounter counts the SQL statements prepared by Hibernate on the current
+ * thread, as reported by the {@link QueryCountInterceptor}. It is used to guard the
+ * generic repository against N+1 selects:
+ * <pre>
+ * QueryCounter.expect(1, () -&gt; baseService.findAll(SecondEntity.class, expand));
+ * </pre>
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public final class QueryCounter {
+
+    /**
+     * statements prepared by the current thread since the last reset
+     */
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    private QueryCounter() {
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+
+    /**
+     * Starts counting again from zero on the current thread.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return The number of statements prepared by the current thread since the last reset
+     */
+    public static long count() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Checks the number of statements prepared by the current thread since the last reset.
+     *
+     * @param expected the expected number of statements
+     * @throws AssertionError if a different number of statements was prepared
+     */
+    public static void assertCount(long expected) {
+        long actual = count();
+        if (actual != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but " + actual + " were prepared");
+        }
+    }
+
+    /**
+     * Runs an action and checks the number of statements it prepared on the current thread.
+     *
+     * @param expected the expected number of statements
+     * @param action   the action to run
+     * @param <T>      the result type of the action
+     * @return The result of the action
+     * @throws AssertionError if a different number of statements was prepared
+     */
+    public static <T> T expect(long expected, Supplier<T> action) {
+        reset();
+        T result = action.get();
+        assertCount(expected);
+        return result;
+    }
+}
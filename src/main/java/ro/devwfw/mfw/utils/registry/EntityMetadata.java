@@ -0,0 +1,78 @@
+package ro.devwfw.mfw.utils.registry;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import ro.devwfw.mfw.model.BaseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * The EntityMetadata holds what the generic endpoints need to know about an
+ * entity: its name, its class, a constructor and the Jackson readers and
+ * writers bound to its type. Instances are immutable and shared by all requests.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityMetadata<T extends BaseEntity> {
+
+    private final String name;
+
+    private final Class<T> entityClass;
+
+    private final Supplier<T> constructor;
+
+    private final ObjectReader reader;
+
+    private final ObjectReader listReader;
+
+    private final ObjectWriter writer;
+
+    public EntityMetadata(String name, Class<T> entityClass, Supplier<T> constructor,
+                          ObjectReader reader, ObjectReader listReader, ObjectWriter writer) {
+        this.name = name;
+        this.entityClass = entityClass;
+        this.constructor = constructor;
+        this.reader = reader;
+        this.listReader = listReader;
+        this.writer = writer;
+    }
+
+    /**
+     * Creates a new instance of the entity without reflection.
+     *
+     * @return A new entity instance
+     */
+    public T newInstance() {
+        return constructor.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return An ObjectReader reading a single entity
+     */
+    public ObjectReader getReader() {
+        return reader;
+    }
+
+    /**
+     * @return An ObjectReader reading a JSON array of entities into a List
+     */
+    public ObjectReader getListReader() {
+        return listReader;
+    }
+
+    /**
+     * @return An ObjectWriter writing a single entity
+     */
+    public ObjectWriter getWriter() {
+        return writer;
+    }
+}
@@ -0,0 +1,40 @@
+package ro.devwfw.mfw.utils.registry;
+
+import ro.devwfw.mfw.model.BaseEntity;
+
+import java.util.Collection;
+
+/**
+ * The EntityRegistry holds the metadata of every entity annotated with @EntityName,
+ * resolved once at startup so the generic endpoints do not need reflection per request.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public interface EntityRegistry {
+
+    /**
+     * Returns the metadata of an entity giving the entity name
+     *
+     * @param name the entity name from annotation @EntityName
+     * @param <T>  the class type of BaseEnity
+     * @return The metadata of the entity or <code>null</code> if the name is not mapped
+     */
+    <T extends BaseEntity> EntityMetadata<T> getMetadata(String name);
+
+    /**
+     * Returns the metadata of an entity giving the entity class
+     *
+     * @param clazz the entity class
+     * @param <T>   the class type of BaseEnity
+     * @return The metadata of the entity or <code>null</code> if the class is not mapped
+     */
+    <T extends BaseEntity> EntityMetadata<T> getMetadata(Class<T> clazz);
+
+    /**
+     * Returns the metadata of all mapped entities
+     *
+     * @return A collection with the metadata of every entity
+     */
+    Collection<EntityMetadata<?>> getAll();
+}
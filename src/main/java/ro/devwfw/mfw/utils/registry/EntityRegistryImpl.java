@@ -0,0 +1,143 @@
+package ro.devwfw.mfw.utils.registry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapper;
+
+import javax.annotation.PostConstruct;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The EntityRegistryImpl builds the {@link EntityMetadata} of every entity mapped by
+ * the {@link PathVariableToClassMapper} at startup. Constructors are compiled to
+ * {@link Supplier}s with the {@link LambdaMetafactory} and the Jackson readers and
+ * writers are resolved once per type.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityRegistryImpl implements EntityRegistry {
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    /**
+     * The PathVariableToClassMapper provides the entity names and classes.
+     */
+    @Autowired
+    private PathVariableToClassMapper pathVariableToClassMapper;
+
+    /**
+     * The ObjectMapper the readers and writers are created from.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * metadata by entity name
+     */
+    private Map<String, EntityMetadata<?>> metadataByName;
+
+    /**
+     * metadata by entity class
+     */
+    private Map<Class<?>, EntityMetadata<?>> metadataByClass;
+
+    @Override
+    public <T extends BaseEntity> EntityMetadata<T> getMetadata(String name) {
+        return (EntityMetadata<T>) metadataByName.get(name);
+    }
+
+    @Override
+    public <T extends BaseEntity> EntityMetadata<T> getMetadata(Class<T> clazz) {
+        return (EntityMetadata<T>) metadataByClass.get(clazz);
+    }
+
+    @Override
+    public Collection<EntityMetadata<?>> getAll() {
+        return metadataByName.values();
+    }
+
+    /**
+     * Creates the metadata of every mapped entity.
+     *
+     * @throws Throwable if a constructor could not be compiled
+     */
+    @PostConstruct
+    private void createMetadata() throws Throwable {
+        Map<String, EntityMetadata<?>> byName = new HashMap<>();
+        Map<Class<?>, EntityMetadata<?>> byClass = new HashMap<>();
+        Map<String, Class<? extends BaseEntity>> mappings = pathVariableToClassMapper.getMappings();
+        if (mappings != null) {
+            for (Map.Entry<String, Class<? extends BaseEntity>> mapping : mappings.entrySet()) {
+                EntityMetadata<?> metadata = createMetadata(mapping.getKey(), mapping.getValue());
+                byName.put(metadata.getName(), metadata);
+                byClass.put(metadata.getEntityClass(), metadata);
+                logger.info("Registered entity {} as {}", metadata.getName(), metadata.getEntityClass().getName());
+            }
+        }
+        metadataByName = Collections.unmodifiableMap(byName);
+        metadataByClass = Collections.unmodifiableMap(byClass);
+    }
+
+    /**
+     * Creates the metadata of an entity. The readers and writers resolve their root
+     * deserializer and serializer when built, so the property accessors of the entity
+     * are generated here, at startup, and not on its first request.
+     *
+     * @param name  the entity name
+     * @param clazz the entity class
+     * @param <T>   the class type of BaseEnity
+     * @return The metadata of the entity
+     * @throws Throwable if the constructor could not be compiled
+     */
+    private <T extends BaseEntity> EntityMetadata<T> createMetadata(String name, Class<T> clazz) throws Throwable {
+        return new EntityMetadata<T>(name, clazz, createConstructor(clazz),
+                objectMapper.readerFor(clazz),
+                objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, clazz)),
+                objectMapper.writerFor(clazz).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+    }
+
+    /**
+     * Compiles the no argument constructor of an entity to a Supplier, falling back
+     * to invoking the constructor handle when the class can not be linked from here.
+     *
+     * @param clazz the entity class
+     * @param <T>   the class type of BaseEnity
+     * @return A Supplier creating new instances of the entity
+     * @throws Throwable if the entity has no accessible no argument constructor
+     */
+    private <T extends BaseEntity> Supplier<T> createConstructor(Class<T> clazz) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final MethodHandle constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                    constructor, MethodType.methodType(clazz));
+            return (Supplier<T>) site.getTarget().invokeExact();
+        } catch (LambdaConversionException | LinkageError e) {
+            logger.warn("Falling back to a method handle for {}: {}", clazz.getName(), e.getMessage());
+            return () -> {
+                try {
+                    return (T) constructor.invoke();
+                } catch (Throwable t) {
+                    throw new IllegalStateException("Could not create an instance of " + clazz.getName(), t);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ro.devwfw.mfw.web.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+/**
+ * Reads and writes a binary Jackson format, Smile or CBOR, with an ObjectMapper
+ * created on the factory of the format, see {@link WireFormatMappers}.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class BinaryJackson2HttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public BinaryJackson2HttpMessageConverter(ObjectMapper objectMapper, MediaType mediaType) {
+        super(objectMapper, mediaType);
+    }
+}
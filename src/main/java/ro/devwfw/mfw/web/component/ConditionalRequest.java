@@ -0,0 +1,90 @@
+package ro.devwfw.mfw.web.component;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The conditional headers of a GET request, If-None-Match and
+ * If-Modified-Since. They are read on the request thread, so the work of the
+ * request can check them on a thread of the {@link EntityRequestExecutor}
+ * without touching the request or the response, the validators and the 304
+ * status being returned in the ResponseEntity.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public final class ConditionalRequest {
+
+    private final List<String> ifNoneMatch;
+
+    private final long ifModifiedSince;
+
+    private ConditionalRequest(List<String> ifNoneMatch, long ifModifiedSince) {
+        this.ifNoneMatch = ifNoneMatch;
+        this.ifModifiedSince = ifModifiedSince;
+    }
+
+    /**
+     * @param webRequest the current request, on the request thread
+     * @return the conditional headers of the request
+     */
+    public static ConditionalRequest of(WebRequest webRequest) {
+        String[] ifNoneMatch = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        List<String> tags = Collections.emptyList();
+        if (ifNoneMatch != null) {
+            tags = Arrays.asList(StringUtils.trimArrayElements(
+                    StringUtils.commaDelimitedListToStringArray(StringUtils.arrayToCommaDelimitedString(ifNoneMatch))));
+        }
+
+        long ifModifiedSince = -1;
+        String value = webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (value != null) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, value);
+            try {
+                ifModifiedSince = headers.getIfModifiedSince();
+            } catch (IllegalArgumentException e) {
+                // an invalid date is ignored, as by the servlet containers
+            }
+        }
+        return new ConditionalRequest(tags, ifModifiedSince);
+    }
+
+    /**
+     * Adds the ETag and the Last-Modified headers of the requested resource to
+     * the response headers and checks them against the conditional headers.
+     * If-None-Match takes precedence over If-Modified-Since.
+     *
+     * @param etag         the ETag of the requested resource, quoted
+     * @param lastModified the last modification time in milliseconds, negative if unknown
+     * @param headers      the headers of the response
+     * @return <code>true</code> if the response should have HTTP status 304
+     */
+    public boolean checkNotModified(String etag, long lastModified, HttpHeaders headers) {
+        headers.setETag(etag);
+        if (lastModified >= 0) {
+            headers.setLastModified(lastModified);
+        }
+
+        if (!ifNoneMatch.isEmpty()) {
+            for (String tag : ifNoneMatch) {
+                // If-None-Match compares weakly
+                if (tag.equals("*") || weak(tag).equals(weak(etag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // the Last-Modified header is sent in seconds
+        return lastModified >= 0 && ifModifiedSince >= 0 && lastModified / 1000 * 1000 <= ifModifiedSince;
+    }
+
+    private static String weak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -1,11 +1,15 @@
 package ro.devwfw.mfw.web.component;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.springframework.core.Conventions;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.http.HttpInputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
-import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -13,25 +17,58 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+import ro.devwfw.mfw.utils.registry.EntityMetadata;
+import ro.devwfw.mfw.utils.registry.EntityRegistry;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Resolves the parameters annotated with @RequestBodyEntityObject. The entity type is
+ * taken from the entityClass URI template variable and the body is read with the
+ * ObjectReader of the {@link EntityRegistry}, so no instance is created for requests
+ * without a body. The Jackson message converter which reads the Content-Type of the
+ * body, e.g. Smile or CBOR, see {@link WireFormat}, gives the format: the reader is
+ * switched to the factory of its ObjectMapper. A body no converter reads is answered
+ * with HTTP status 415.
+ *
  * @author LaurentiuM
  * @version createdOn: 1/5/16
  */
 public class EntityObjectArgumentResolver extends RequestResponseBodyMethodProcessor {
 
-    public EntityObjectArgumentResolver(List<HttpMessageConverter<?>> messageConverters) {
+    /**
+     * the URI template variable holding the entity name
+     */
+    public static final String ENTITY_PATH_VARIABLE = "entityClass";
+
+    /**
+     * marks a parameter without validation annotation in the hints cache
+     */
+    private static final Object[] NO_VALIDATION = new Object[0];
+
+    private final EntityRegistry entityRegistry;
+
+    /**
+     * validation hints by parameter, resolved on the first request of each handler
+     */
+    private final ConcurrentMap<MethodParameter, Object[]> validationHints = new ConcurrentHashMap<>();
+
+    public EntityObjectArgumentResolver(List<HttpMessageConverter<?>> messageConverters, EntityRegistry entityRegistry) {
         super(messageConverters);
+        this.entityRegistry = entityRegistry;
     }
 
     @Override
@@ -45,12 +82,9 @@ public class EntityObjectArgumentResolver extends RequestResponseBodyMethodProce
     }
 
     protected void validateIfApplicable(WebDataBinder binder, MethodParameter parameter) {
-        Annotation[] annotations = parameter.getParameterAnnotations();
-        for (Annotation annot : annotations) {
-            if (annot.annotationType().getSimpleName().startsWith("Valid")) {
-                Object hints = AnnotationUtils.getValue(annot);
-                binder.validate(hints instanceof Object[] ? (Object[]) hints : new Object[]{hints});
-            }
+        Object[] hints = getValidationHints(parameter);
+        if (hints != NO_VALIDATION) {
+            binder.validate(hints);
         }
     }
 
@@ -61,62 +95,129 @@ public class EntityObjectArgumentResolver extends RequestResponseBodyMethodProce
         String attrName = (annotd != null) ? annotd.value() : null;
         String modelName = StringUtils.hasText(attrName) ? attrName : Conventions.getVariableNameForParameter(parameter);
 
-        Object baseEntity = mavContainer.getModel().get(modelName);
-        Object arg = readWithMessageConverters(webRequest, parameter, baseEntity.getClass());
+        Object arg = readEntity(webRequest, parameter, annotd == null || annotd.required());
 
-        Annotation[] annotations = parameter.getParameterAnnotations();
         WebDataBinder binder = binderFactory.createBinder(webRequest, arg, modelName);
-        for (Annotation annot : annotations) {
-            if (annot.annotationType().getSimpleName().startsWith("Valid")) {
-                Object hints = AnnotationUtils.getValue(annot);
-                binder.validate(hints instanceof Object[] ? (Object[]) hints : new Object[]{hints});
-                BindingResult bindingResult = binder.getBindingResult();
-                if (bindingResult.hasErrors()) {
-                    throw new MethodArgumentNotValidException(parameter, bindingResult);
-                }
+        Object[] hints = getValidationHints(parameter);
+        if (hints != NO_VALIDATION) {
+            binder.validate(hints);
+            BindingResult bindingResult = binder.getBindingResult();
+            if (bindingResult.hasErrors()) {
+                throw new MethodArgumentNotValidException(parameter, bindingResult);
             }
         }
         mavContainer.addAttribute(BindingResult.MODEL_KEY_PREFIX + modelName, binder.getBindingResult());
         return arg;
     }
 
-    @Override
-    protected <T> Object readWithMessageConverters(NativeWebRequest webRequest,
-                                                   MethodParameter methodParam, Type paramType) throws IOException, HttpMediaTypeNotSupportedException {
-
-        final HttpServletRequest servletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
-        HttpInputMessage inputMessage = new ServletServerHttpRequest(servletRequest);
-
-        RequestBodyEntityObject annot = methodParam.getParameterAnnotation(RequestBodyEntityObject.class);
-        if (!annot.required()) {
-            InputStream inputStream = inputMessage.getBody();
-            if (inputStream == null) {
-                return null;
-            } else if (inputStream.markSupported()) {
-                inputStream.mark(1);
-                if (inputStream.read() == -1) {
-                    return null;
-                }
-                inputStream.reset();
-            } else {
-                final PushbackInputStream pushbackInputStream = new PushbackInputStream(inputStream);
-                int b = pushbackInputStream.read();
-                if (b == -1) {
-                    return null;
-                } else {
-                    pushbackInputStream.unread(b);
+    /**
+     * Reads the request body as the entity named by the entityClass URI template
+     * variable, or as a List of them if the parameter is a Collection.
+     *
+     * @param webRequest the current request
+     * @param parameter  the parameter to resolve
+     * @param required   whether an empty body is an error
+     * @return the entity, the list of entities or <code>null</code> for an empty body which is not required
+     * @throws IOException                      if the body could not be read
+     * @throws HttpMediaTypeNotSupportedException if no converter reads the Content-Type of the body
+     */
+    private Object readEntity(NativeWebRequest webRequest, MethodParameter parameter, boolean required)
+            throws IOException, HttpMediaTypeNotSupportedException {
+        Map<String, String> uriTemplateVars = (Map<String, String>) webRequest.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        String entityName = uriTemplateVars != null ? uriTemplateVars.get(ENTITY_PATH_VARIABLE) : null;
+        EntityMetadata<?> metadata = entityRegistry.getMetadata(entityName);
+        if (metadata == null) {
+            throw new HttpMessageNotReadableException("No entity is mapped to the name " + entityName);
+        }
+
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        MediaType contentType = getContentType(request);
+        AbstractJackson2HttpMessageConverter converter = getConverter(contentType);
+        InputStream inputStream = request.getInputStream();
+        PushbackInputStream body = new PushbackInputStream(inputStream);
+        int b = body.read();
+        if (b == -1) {
+            if (required) {
+                throw new HttpMessageNotReadableException("Required request body is missing: " + parameter.getMethod().toGenericString());
+            }
+            return null;
+        }
+        body.unread(b);
+
+        ObjectReader reader;
+        if (Collection.class.isAssignableFrom(parameter.getParameterType())) {
+            // a JSON array of entities, used by the batch endpoints
+            reader = metadata.getListReader();
+        } else {
+            reader = metadata.getReader().withValueToUpdate(metadata.newInstance());
+        }
+        // the same reader when the converter shares the ObjectMapper of the registry, as for JSON
+        reader = reader.with(converter.getObjectMapper().getFactory());
+        try {
+            return reader.readValue(body);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Could not read document: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param request the current request
+     * @return the Content-Type of the body, JSON when the request has none
+     * @throws HttpMediaTypeNotSupportedException if the Content-Type is invalid
+     */
+    private static MediaType getContentType(HttpServletRequest request) throws HttpMediaTypeNotSupportedException {
+        if (!StringUtils.hasText(request.getContentType()))
+            return MediaType.APPLICATION_JSON;
+        try {
+            return MediaType.parseMediaType(request.getContentType());
+        } catch (InvalidMediaTypeException e) {
+            throw new HttpMediaTypeNotSupportedException(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the first Jackson message converter supporting a Content-Type,
+     * as the converters are asked by {@link RequestResponseBodyMethodProcessor}.
+     * The entity types are checked by the registry, so only the media types are
+     * compared.
+     *
+     * @param contentType the Content-Type of the body
+     * @return the converter reading the body
+     * @throws HttpMediaTypeNotSupportedException if no converter reads the Content-Type
+     */
+    private AbstractJackson2HttpMessageConverter getConverter(MediaType contentType) throws HttpMediaTypeNotSupportedException {
+        for (HttpMessageConverter<?> converter : messageConverters) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter) {
+                for (MediaType supportedMediaType : converter.getSupportedMediaTypes()) {
+                    if (supportedMediaType.includes(contentType))
+                        return (AbstractJackson2HttpMessageConverter) converter;
                 }
-                inputMessage = new ServletServerHttpRequest(servletRequest) {
-                    @Override
-                    public InputStream getBody() throws IOException {
-                        // Form POST should not get here
-                        return pushbackInputStream;
-                    }
-                };
             }
         }
+        throw new HttpMediaTypeNotSupportedException(contentType, allSupportedMediaTypes);
+    }
 
-        return super.readWithMessageConverters(inputMessage, methodParam, paramType);
+    /**
+     * Returns the validation hints of a parameter annotated with @Valid or @Validated.
+     *
+     * @param parameter the parameter to validate
+     * @return the hints or NO_VALIDATION if the parameter is not validated
+     */
+    private Object[] getValidationHints(MethodParameter parameter) {
+        Object[] hints = validationHints.get(parameter);
+        if (hints == null) {
+            hints = NO_VALIDATION;
+            for (Annotation annot : parameter.getParameterAnnotations()) {
+                if (annot.annotationType().getSimpleName().startsWith("Valid")) {
+                    Object value = AnnotationUtils.getValue(annot);
+                    hints = value instanceof Object[] ? (Object[]) value : new Object[]{value};
+                    break;
+                }
+            }
+            validationHints.putIfAbsent(parameter, hints);
+        }
+        return hints;
     }
 
 }
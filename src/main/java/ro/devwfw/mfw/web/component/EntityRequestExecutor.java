@@ -0,0 +1,167 @@
+package ro.devwfw.mfw.web.component;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.context.request.async.DeferredResult;
+import ro.devwfw.mfw.datasource.RoutingContext;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The EntityRequestExecutor runs the work of the generic CRUD endpoints on a
+ * bounded pool, so the container threads are released while the database is
+ * queried. The pool should not be larger than the connection pool, the extra
+ * threads would only wait for a connection.
+ * <p>
+ * When all the threads are busy and the queue is full the task is rejected
+ * with a RejectedExecutionException, answered with HTTP status 429. A task not
+ * completed within the timeout completes its DeferredResult with a
+ * TimeoutException, answered with HTTP status 503, and is cancelled if it did
+ * not start yet.
+ * <p>
+ * With baseEntities.async.enabled=false the tasks run on the request thread.
+ * Otherwise the {@link RoutingContext} session of the request is passed on to
+ * the thread running its task.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityRequestExecutor {
+
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Value("${baseEntities.async.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * the number of threads, at most the size of the connection pool
+     */
+    @Value("${baseEntities.async.poolSize:10}")
+    private int poolSize;
+
+    /**
+     * the number of tasks waiting for a thread before new ones are rejected
+     */
+    @Value("${baseEntities.async.queueCapacity:100}")
+    private int queueCapacity;
+
+    /**
+     * the time in milliseconds a request may wait and run
+     */
+    @Value("${baseEntities.async.timeout:10000}")
+    private long timeout;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong timedOut = new AtomicLong();
+
+    @PostConstruct
+    private void createExecutor() {
+        logger.info("- createExecutor enabled:{} poolSize:{} queueCapacity:{} timeout:{}",
+                enabled, poolSize, queueCapacity, timeout);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("entity-request-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submits a task whose value is the result of the request.
+     *
+     * @param task the work of the request
+     * @param <T>  the type of the result
+     * @return A DeferredResult completed with the value of the task or with the
+     * exception it threw
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public <T> DeferredResult<T> submit(final Callable<T> task) {
+        final DeferredResult<T> deferredResult = new DeferredResult<T>(timeout);
+        if (!enabled) {
+            run(task, deferredResult);
+            return deferredResult;
+        }
+
+        final Future<?> future;
+        try {
+            final Callable<T> sessionTask = RoutingContext.propagate(task);
+            future = executor.submit(() -> run(sessionTask, deferredResult));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("The server is busy, " + queueCapacity + " requests are waiting", e);
+        }
+        deferredResult.onTimeout(() -> {
+            timedOut.incrementAndGet();
+            future.cancel(false);
+            deferredResult.setErrorResult(new TimeoutException("The request did not complete within " + timeout + " ms"));
+        });
+        return deferredResult;
+    }
+
+    /**
+     * Returns a result computed on the request thread, e.g. an entity found in
+     * the cache.
+     *
+     * @param value the result of the request
+     * @param <T>   the type of the result
+     * @return A DeferredResult already completed with the value
+     */
+    public <T> DeferredResult<T> completed(T value) {
+        DeferredResult<T> deferredResult = new DeferredResult<T>();
+        deferredResult.setResult(value);
+        return deferredResult;
+    }
+
+    private <T> void run(Callable<T> task, DeferredResult<T> deferredResult) {
+        try {
+            deferredResult.setResult(task.call());
+        } catch (Exception e) {
+            deferredResult.setErrorResult(e);
+        }
+    }
+
+    /**
+     * @return the number of threads running a task
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of tasks rejected because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the number of requests which did not complete within the timeout
+     */
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+}
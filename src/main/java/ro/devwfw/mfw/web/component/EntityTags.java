@@ -0,0 +1,97 @@
+package ro.devwfw.mfw.web.component;
+
+import java.util.Locale;
+
+/**
+ * The entity tags of single entities, built from the id and the updtimestamp,
+ * e.g. <code>"1-1392336000000"</code>. They are sent in the ETag response
+ * header and read back from the If-Match request header of an update, as the
+ * version the client read the entity at.
+ * <p>
+ * The bytes of a response depend on the negotiated {@link WireFormat}, so the
+ * tags of Smile and CBOR responses, of entities and of collections, end with
+ * the name of the format, e.g. <code>"1-1392336000000-cbor"</code>. A gzip
+ * encoded JSON response is another representation with its own strong tag,
+ * ending with the coding, e.g. <code>"1-1392336000000-gzip"</code>.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public final class EntityTags {
+
+    /**
+     * the suffix of the tags of gzip encoded responses
+     */
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param id      the id of the entity
+     * @param version the updtimestamp of the entity, in milliseconds
+     * @param format  the format of the response
+     * @return the strong entity tag of the entity, quoted
+     */
+    public static String of(Long id, long version, WireFormat format) {
+        return of(id, version, format, false);
+    }
+
+    /**
+     * @param id      the id of the entity
+     * @param version the updtimestamp of the entity, in milliseconds
+     * @param format  the format of the response
+     * @param gzip    whether the response is gzip encoded
+     * @return the strong entity tag of the entity, quoted
+     */
+    public static String of(Long id, long version, WireFormat format, boolean gzip) {
+        return "\"" + id + "-" + version + suffix(format) + (gzip ? GZIP_SUFFIX : "") + "\"";
+    }
+
+    /**
+     * @param etag   a quoted entity tag of a JSON response, e.g. of a collection
+     * @param format the format of the response
+     * @return the entity tag of the response in the format
+     */
+    public static String forFormat(String etag, WireFormat format) {
+        return etag.substring(0, etag.length() - 1) + suffix(format) + "\"";
+    }
+
+    /**
+     * Returns the version held by an entity tag of an entity, in any format
+     * and content coding.
+     *
+     * @param etag an entity tag, e.g. the If-Match request header
+     * @param id   the id of the entity
+     * @return the updtimestamp in milliseconds or <code>null</code> if the tag
+     * is not a strong entity tag of the entity
+     */
+    public static Long parseVersion(String etag, Long id) {
+        if (etag == null || id == null)
+            return null;
+        // a weak tag never matches, If-Match compares strongly
+        String tag = etag.trim();
+        String prefix = "\"" + id + "-";
+        if (tag.length() <= prefix.length() + 1 || !tag.startsWith(prefix) || !tag.endsWith("\""))
+            return null;
+        String version = tag.substring(prefix.length(), tag.length() - 1);
+        if (version.endsWith(GZIP_SUFFIX))
+            version = version.substring(0, version.length() - GZIP_SUFFIX.length());
+        for (WireFormat format : WireFormat.values()) {
+            String suffix = suffix(format);
+            if (!suffix.isEmpty() && version.endsWith(suffix)) {
+                version = version.substring(0, version.length() - suffix.length());
+                break;
+            }
+        }
+        try {
+            return Long.valueOf(version);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String suffix(WireFormat format) {
+        return format == WireFormat.JSON ? "" : "-" + format.name().toLowerCase(Locale.ROOT);
+    }
+}
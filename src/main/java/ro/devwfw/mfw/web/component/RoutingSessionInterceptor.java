@@ -0,0 +1,90 @@
+package ro.devwfw.mfw.web.component;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import org.springframework.web.util.WebUtils;
+import ro.devwfw.mfw.datasource.RoutingContext;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.util.UUID;
+
+/**
+ * The RoutingSessionInterceptor tells the
+ * {@link ro.devwfw.mfw.datasource.ReplicaRoutingDataSource} which session a
+ * request belongs to, so the session reads its own writes. The session is, in
+ * this order:
+ * <ul>
+ * <li>the token a client sends in the X-Routing-Session header, any value it
+ * keeps between its requests;</li>
+ * <li>the ROUTING_SESSION cookie, set by the service on the first request
+ * which may write, i.e. not a GET, HEAD or OPTIONS, sent without a token;</li>
+ * <li>the HTTP session when the client keeps one.</li>
+ * </ul>
+ * A client which sends neither the header nor the cookie back reads from the
+ * replicas right after its writes. The {@link EntityRequestExecutor} passes
+ * the session on to the thread running the request.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class RoutingSessionInterceptor extends HandlerInterceptorAdapter {
+
+    public static final String SESSION_HEADER = "X-Routing-Session";
+
+    public static final String SESSION_COOKIE = "ROUTING_SESSION";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // the result is only written, the cookie was issued by the first dispatch
+            return true;
+        }
+        String token = request.getHeader(SESSION_HEADER);
+        if (StringUtils.hasText(token)) {
+            RoutingContext.setSession("token:" + token);
+            return true;
+        }
+        Cookie cookie = WebUtils.getCookie(request, SESSION_COOKIE);
+        if (cookie != null && StringUtils.hasText(cookie.getValue())) {
+            RoutingContext.setSession("token:" + cookie.getValue());
+            return true;
+        }
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            RoutingContext.setSession("session:" + session.getId());
+            return true;
+        }
+        if (!isSafe(request.getMethod())) {
+            String issued = UUID.randomUUID().toString();
+            Cookie issuedCookie = new Cookie(SESSION_COOKIE, issued);
+            issuedCookie.setPath("/");
+            issuedCookie.setHttpOnly(true);
+            response.addCookie(issuedCookie);
+            RoutingContext.setSession("token:" + issued);
+        }
+        return true;
+    }
+
+    /**
+     * @return <code>true</code> for the methods which do not write, they never
+     * start a read-your-writes window
+     */
+    private static boolean isSafe(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RoutingContext.clearSession();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RoutingContext.clearSession();
+    }
+}
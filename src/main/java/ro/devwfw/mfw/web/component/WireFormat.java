@@ -0,0 +1,94 @@
+package ro.devwfw.mfw.web.component;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * The encodings of the entities negotiated by the /web routes. JSON is the
+ * default, Smile and CBOR are binary encodings of the same data model which
+ * are smaller and faster to encode and decode, meant for service to service
+ * calls.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON_VALUE),
+
+    SMILE(WireFormat.APPLICATION_SMILE_VALUE),
+
+    CBOR(WireFormat.APPLICATION_CBOR_VALUE);
+
+    /**
+     * The media type of the Smile binary JSON encoding.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * The media type of CBOR, RFC 7049.
+     */
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+
+    private final MediaType mediaType;
+
+    WireFormat(String mediaType) {
+        this.mediaType = MediaType.valueOf(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns the format of a request body.
+     *
+     * @param contentType the Content-Type request header, optional
+     * @return the format of the body, JSON when none matches
+     */
+    public static WireFormat ofContentType(String contentType) {
+        if (!StringUtils.hasText(contentType))
+            return JSON;
+        try {
+            WireFormat format = of(MediaType.parseMediaType(contentType));
+            return format != null ? format : JSON;
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+    }
+
+    /**
+     * Returns the format of a response, the one the request prefers.
+     *
+     * @param accept the Accept request header, optional
+     * @return the most specific format with the highest quality, JSON when
+     * none is named
+     */
+    public static WireFormat ofAccept(String accept) {
+        if (!StringUtils.hasText(accept))
+            return JSON;
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(mediaTypes);
+            for (MediaType mediaType : mediaTypes) {
+                WireFormat format = of(mediaType);
+                if (format != null)
+                    return format;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // answered with the default
+        }
+        return JSON;
+    }
+
+    private static WireFormat of(MediaType mediaType) {
+        for (WireFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType) && !mediaType.isWildcardType())
+                return format;
+        }
+        return null;
+    }
+}
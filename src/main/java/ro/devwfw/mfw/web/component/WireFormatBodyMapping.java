@@ -0,0 +1,34 @@
+package ro.devwfw.mfw.web.component;
+
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A {@link RequestMapping} consuming and producing every {@link WireFormat},
+ * for the routes reading a body, see {@link WireFormatMapping}.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@RequestMapping(
+        consumes = {MediaType.APPLICATION_JSON_VALUE, WireFormat.APPLICATION_SMILE_VALUE, WireFormat.APPLICATION_CBOR_VALUE},
+        produces = {MediaType.APPLICATION_JSON_VALUE, WireFormat.APPLICATION_SMILE_VALUE, WireFormat.APPLICATION_CBOR_VALUE})
+public @interface WireFormatBodyMapping {
+
+    @AliasFor(annotation = RequestMapping.class, attribute = "value")
+    String[] value() default {};
+
+    @AliasFor(annotation = RequestMapping.class, attribute = "method")
+    RequestMethod[] method() default {};
+}
@@ -0,0 +1,107 @@
+package ro.devwfw.mfw.web.component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The WireFormatMappers provides an ObjectMapper for every {@link WireFormat},
+ * configured as the shared one by the same Jackson2ObjectMapperBuilder, the
+ * Hibernate module included, so an entity has the same fields in every
+ * format.
+ * <p>
+ * The readers and writers of the EntityRegistry are built for JSON, they are
+ * switched to another format with {@link #getReader} and {@link #getWriter}
+ * keeping their type and their serializers.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class WireFormatMappers {
+
+    /**
+     * The ObjectMapper configured by Spring Boot, used for JSON.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * The builder of the shared ObjectMapper, applied to the binary ones.
+     */
+    @Autowired
+    private Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder;
+
+    private final Map<WireFormat, ObjectMapper> objectMappers = new EnumMap<>(WireFormat.class);
+
+    @PostConstruct
+    private void createObjectMappers() {
+        objectMappers.put(WireFormat.JSON, objectMapper);
+        objectMappers.put(WireFormat.SMILE, createObjectMapper(new SmileFactory()));
+        objectMappers.put(WireFormat.CBOR, createObjectMapper(new CBORFactory()));
+    }
+
+    private ObjectMapper createObjectMapper(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        jacksonObjectMapperBuilder.configure(mapper);
+        return mapper;
+    }
+
+    /**
+     * @param format the wire format
+     * @return the ObjectMapper of the format
+     */
+    public ObjectMapper getObjectMapper(WireFormat format) {
+        return objectMappers.get(format);
+    }
+
+    /**
+     * @param format the wire format
+     * @return the factory of the parsers and generators of the format
+     */
+    public JsonFactory getFactory(WireFormat format) {
+        return objectMappers.get(format).getFactory();
+    }
+
+    /**
+     * @param reader a reader built for JSON
+     * @param format the wire format
+     * @return the reader parsing the format
+     */
+    public ObjectReader getReader(ObjectReader reader, WireFormat format) {
+        return format == WireFormat.JSON ? reader : reader.with(getFactory(format));
+    }
+
+    /**
+     * @param writer a writer built for JSON
+     * @param format the wire format
+     * @return the writer generating the format
+     */
+    public ObjectWriter getWriter(ObjectWriter writer, WireFormat format) {
+        return format == WireFormat.JSON ? writer : writer.with(getFactory(format));
+    }
+
+    /**
+     * @return the message converters of the binary formats, in the order of
+     * {@link WireFormat}
+     */
+    public List<HttpMessageConverter<?>> createBinaryConverters() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<HttpMessageConverter<?>>();
+        for (WireFormat format : WireFormat.values()) {
+            if (format != WireFormat.JSON)
+                converters.add(new BinaryJackson2HttpMessageConverter(objectMappers.get(format), format.getMediaType()));
+        }
+        return converters;
+    }
+}
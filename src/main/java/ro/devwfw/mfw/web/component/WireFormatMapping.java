@@ -0,0 +1,41 @@
+package ro.devwfw.mfw.web.component;
+
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A {@link RequestMapping} producing every {@link WireFormat}. An annotation
+ * can not take its media types from an array constant, so the routes share
+ * this one instead of repeating them; the routes which also read a body in
+ * the wire formats use {@link WireFormatBodyMapping}, the others may name the
+ * media types they read with consumes.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@RequestMapping(produces = {MediaType.APPLICATION_JSON_VALUE, WireFormat.APPLICATION_SMILE_VALUE, WireFormat.APPLICATION_CBOR_VALUE})
+public @interface WireFormatMapping {
+
+    @AliasFor(annotation = RequestMapping.class, attribute = "value")
+    String[] value() default {};
+
+    @AliasFor(annotation = RequestMapping.class, attribute = "method")
+    RequestMethod[] method() default {};
+
+    @AliasFor(annotation = RequestMapping.class, attribute = "params")
+    String[] params() default {};
+
+    @AliasFor(annotation = RequestMapping.class, attribute = "consumes")
+    String[] consumes() default {};
+}
@@ -1,23 +1,81 @@
 package ro.devwfw.mfw.web.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import ro.devwfw.mfw.cache.EntityResponseCache;
 import ro.devwfw.mfw.model.BaseEntity;
+import ro.devwfw.mfw.repository.ChangeCursor;
+import ro.devwfw.mfw.repository.CollectionVersion;
+import ro.devwfw.mfw.repository.EntityQuery;
+import ro.devwfw.mfw.repository.InvalidQueryException;
 import ro.devwfw.mfw.service.BaseService;
+import ro.devwfw.mfw.service.BatchItemResult;
+import ro.devwfw.mfw.service.ChangeSet;
 import ro.devwfw.mfw.utils.mappings.PathVariableToClassMapper;
+import ro.devwfw.mfw.utils.registry.EntityRegistry;
+import ro.devwfw.mfw.web.component.ConditionalRequest;
+import ro.devwfw.mfw.web.component.EntityRequestExecutor;
+import ro.devwfw.mfw.web.component.EntityTags;
 import ro.devwfw.mfw.web.component.RequestBodyEntityObject;
+import ro.devwfw.mfw.web.component.WireFormat;
+import ro.devwfw.mfw.web.component.WireFormatBodyMapping;
+import ro.devwfw.mfw.web.component.WireFormatMapping;
+import ro.devwfw.mfw.web.component.WireFormatMappers;
 
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
+ * The generic CRUD endpoints. The work of a request runs on the
+ * {@link EntityRequestExecutor} and the container thread is released until it
+ * completes, except for entities found in the cache and for streamed
+ * requests and responses, which are read and written on the request thread.
+ * <p>
+ * The entities are read and written as JSON by default, or as Smile or CBOR
+ * when the Content-Type or the Accept header names them, see
+ * {@link WireFormat}.
+ *
  * @author LaurentiuM
  * @version createdOn: 12/20/15
  */
 @RestController
 public class BaseController extends ExceptionHandlerController {
+
+    /**
+     * The media type of newline delimited JSON, one value per line.
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     /**
      * The BaseService business service.
      */
@@ -31,45 +89,510 @@ public class BaseController extends ExceptionHandlerController {
     private PathVariableToClassMapper pathVariableToClassMapper;
 
     /**
-     * Creates an instance of type entityClass.
+     * The ObjectMapper used to write streamed responses.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * The EntityRegistry provides the writers of the streamed entities.
+     */
+    @Autowired
+    private EntityRegistry entityRegistry;
+
+    /**
+     * The EntityRequestExecutor runs the requests on a pool bounded by the
+     * connection pool.
+     */
+    @Autowired
+    private EntityRequestExecutor entityRequestExecutor;
+
+    /**
+     * The EntityResponseCache holds the JSON of the entities read by id.
+     */
+    @Autowired
+    private EntityResponseCache entityResponseCache;
+
+    /**
+     * The WireFormatMappers switches the readers and writers to the negotiated format.
+     */
+    @Autowired
+    private WireFormatMappers wireFormatMappers;
+
+    /**
+     * The maximum number of entities returned by a single page of getAll.
+     */
+    @Value("${baseEntities.page.maxLimit:1000}")
+    private int maxLimit;
+
+    /**
+     * The maximum number of ids of a single getMany request.
+     */
+    @Value("${baseEntities.ids.maxSize:1000}")
+    private int idsMaxSize;
+
+    /**
+     * The number of entities created by a transaction of import.
+     */
+    @Value("${baseEntities.import.chunkSize:1000}")
+    private int importChunkSize;
+
+    /**
+     * Every route negotiates its format from the Accept header, so the shared
+     * caches must keep the responses apart by it. The header is set on the
+     * request thread, before the response of any route, 304 included, is
+     * written.
      *
-     * @param entityClass type of entityClass
-     * @param <T> type of entityClass
-     * @return An instance of entityClass
+     * @param request  The HttpServletRequest.
+     * @param response The HttpServletResponse of the request.
      */
-    @ModelAttribute("entityObject")
-    public <T extends BaseEntity> BaseEntity loadObject(@PathVariable("entityClass") String entityClass) {
-        Class<T> clazz = pathVariableToClassMapper.getClassByPath(entityClass);
-        try {
-            return clazz.newInstance();
-        } catch (InstantiationException e) {
-            e.printStackTrace();
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+    @ModelAttribute
+    public void varyByAccept(HttpServletRequest request, HttpServletResponse response) {
+        // the async dispatch of a route writes to the same response
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
         }
-        return null;
     }
 
     /**
      * Web service endpoint to fetch all BaseEntitys entities. The service returns
      * the collection of BaseEntities entities as JSON.
+     * <p>
+     * When after or limit is supplied a single page ordered by id is returned
+     * and, if the page is full, a Link header with rel="next" points to the
+     * following page.
+     * <p>
+     * The response carries an ETag and a Last-Modified header built from the
+     * number of entities and their latest updtimestamp, the ETag ending with the
+     * format for Smile and CBOR. A request whose If-None-Match or
+     * If-Modified-Since matches gets HTTP status 304 and the entities are not
+     * loaded.
+     * <p>
+     * Associations are serialized as references holding only the id, unless they
+     * are listed in expand, e.g. expand=demoEntity, and then they are fetched by
+     * the same query. Expanded responses carry no ETag because they also depend
+     * on the associated entities.
+     *
      * @param entityClass The entity name maped in @EntityName("demo") annotation
+     * @param after       The last id of the previous page, optional.
+     * @param limit       The maximum page size, optional, capped at baseEntities.page.maxLimit.
+     * @param expand      The comma separated associations to be fetched, optional.
+     * @param webRequest  The current request, used for the conditional headers.
+     * @return A DeferredResult of a ResponseEntity containing a Collection of BaseEntities objects.
+     */
+    @WireFormatMapping(
+            value = "/web/{entityClass}/getAll",
+            method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<Collection<BaseEntity>>> getBaseEntities(@PathVariable("entityClass") String entityClass,
+                                                                                  @RequestParam(value = "after", required = false) Long after,
+                                                                                  @RequestParam(value = "limit", required = false) Integer limit,
+                                                                                  @RequestParam(value = "expand", required = false) String expand,
+                                                                                  WebRequest webRequest) {
+        logger.info("> getBaseEntities");
+
+        Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
+        List<String> fetchPlan = toFetchPlan(expand);
+        ConditionalRequest conditionalRequest = ConditionalRequest.of(webRequest);
+        WireFormat format = WireFormat.ofAccept(webRequest.getHeader(HttpHeaders.ACCEPT));
+
+        return entityRequestExecutor.submit(() -> {
+            HttpHeaders headers = new HttpHeaders();
+            if (fetchPlan.isEmpty() && checkNotModified(conditionalRequest, baseService.findVersion(clazz), format, headers)) {
+                logger.info("< getBaseEntities not modified");
+                return new ResponseEntity<Collection<BaseEntity>>(headers, HttpStatus.NOT_MODIFIED);
+            }
+
+            if (after == null && limit == null) {
+                Collection<BaseEntity> baseEntityies = baseService.findAll(clazz, fetchPlan);
+
+                logger.info("< getBaseEntities");
+                return new ResponseEntity<Collection<BaseEntity>>(baseEntityies, headers, HttpStatus.OK);
+            }
+
+            int pageSize = limit == null || limit <= 0 || limit > maxLimit ? maxLimit : limit;
+            List<BaseEntity> page = baseService.findPage(clazz, after, pageSize, fetchPlan);
+
+            if (page.size() == pageSize) {
+                Long last = page.get(page.size() - 1).getId();
+                headers.add(HttpHeaders.LINK, "</web/" + entityClass + "/getAll?after=" + last + "&limit=" + pageSize
+                        + (fetchPlan.isEmpty() ? "" : "&expand=" + StringUtils.collectionToCommaDelimitedString(fetchPlan))
+                        + ">; rel=\"next\"");
+            }
+
+            logger.info("< getBaseEntities");
+            return new ResponseEntity<Collection<BaseEntity>>(page, headers, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Web service endpoint to stream all BaseEntitys entities as a JSON array,
+     * or a Smile or CBOR one if the request accepts it. The entities are
+     * written to the response as they are read from a forward only cursor, so
+     * the memory use does not depend on the size of the table. Conditional
+     * requests and expand are handled as for getAll.
      *
-     * @return A ResponseEntity containing a Collection of BaseEntities objects.
+     * @param entityClass The entity name maped in @EntityName("demo") annotation
+     * @param expand      The comma separated associations to be fetched, optional.
+     * @param accept      The Accept request header, optional.
+     * @param webRequest  The current request, used for the conditional headers.
+     * @param response    The HttpServletResponse the array is written to.
+     * @throws IOException if the response could not be written
      */
-    @RequestMapping(
+    @WireFormatMapping(
             value = "/web/{entityClass}/getAll",
             method = RequestMethod.GET,
-            produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Collection<BaseEntity>> getBaseEntities(@PathVariable("entityClass") String entityClass) {
-        logger.info("> getBaseEntities");
+            params = "stream=true")
+    public void streamBaseEntities(@PathVariable("entityClass") String entityClass,
+                                   @RequestParam(value = "expand", required = false) String expand,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                   WebRequest webRequest,
+                                   HttpServletResponse response) throws IOException {
+        logger.info("> streamBaseEntities");
+
+        Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
+        List<String> fetchPlan = toFetchPlan(expand);
+
+        WireFormat format = WireFormat.ofAccept(accept);
+        HttpHeaders headers = new HttpHeaders();
+        boolean notModified = fetchPlan.isEmpty()
+                && checkNotModified(ConditionalRequest.of(webRequest), baseService.findVersion(clazz), format, headers);
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        if (notModified) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            logger.info("< streamBaseEntities not modified");
+            return;
+        }
+
+        response.setContentType(format.getMediaType().toString());
+        final ObjectWriter writer = entityRegistry.getMetadata(clazz).getWriter();
+        final JsonGenerator generator = wireFormatMappers.getFactory(format).createGenerator(response.getOutputStream());
+        generator.writeStartArray();
+        long count = baseService.scrollAll(clazz, fetchPlan, entity -> {
+            try {
+                writer.writeValue(generator, entity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.writeEndArray();
+        generator.close();
+
+        logger.info("< streamBaseEntities count:{}", count);
+    }
+
+    /**
+     * Web service endpoint to export all BaseEntitys entities as newline
+     * delimited JSON, one entity per line, or as a sequence of Smile or CBOR
+     * values if the request accepts it. The entities are read from a forward
+     * only cursor as for getAll?stream=true, so the memory use does not depend
+     * on the size of the table. The response is compressed when the request
+     * accepts the gzip encoding.
+     *
+     * @param entityClass    The entity name maped in @EntityName("demo") annotation
+     * @param accept         The Accept request header, optional.
+     * @param acceptEncoding The Accept-Encoding request header, optional.
+     * @param response       The HttpServletResponse the entities are written to.
+     * @throws IOException if the response could not be written
+     */
+    @RequestMapping(
+            value = "/web/{entityClass}/export",
+            method = RequestMethod.GET,
+            produces = {APPLICATION_NDJSON_VALUE, WireFormat.APPLICATION_SMILE_VALUE, WireFormat.APPLICATION_CBOR_VALUE})
+    public void exportBaseEntities(@PathVariable("entityClass") String entityClass,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                   HttpServletResponse response) throws IOException {
+        logger.info("> exportBaseEntities");
+
+        Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
+
+        final WireFormat format = WireFormat.ofAccept(accept);
+        response.setContentType(format == WireFormat.JSON ? APPLICATION_NDJSON_VALUE : format.getMediaType().toString());
+        // added to the Vary: Accept of varyByAccept
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        OutputStream out = response.getOutputStream();
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = new GZIPOutputStream(out, 8192);
+        }
+        final ObjectWriter writer = entityRegistry.getMetadata(clazz).getWriter();
+        final JsonGenerator generator = wireFormatMappers.getFactory(format).createGenerator(out);
+        if (format == WireFormat.JSON) {
+            // the lines are separated by the newline written after every entity
+            generator.setRootValueSeparator(null);
+        }
+        long count = baseService.scrollAll(clazz, Collections.<String>emptyList(), entity -> {
+            try {
+                writer.writeValue(generator, entity);
+                if (format == WireFormat.JSON)
+                    generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.close();
+
+        logger.info("< exportBaseEntities count:{}", count);
+    }
+
+    /**
+     * Web service endpoint to import BaseEntitys entities from newline
+     * delimited JSON, one entity per line, or from a sequence of Smile or CBOR
+     * values, according to the Content-Type, e.g. the output of export. The
+     * request body is parsed as a stream and the entities are created in
+     * transactions of baseEntities.import.chunkSize entities using JDBC
+     * batching, so the memory use does not depend on the size of the body. A
+     * body sent with Content-Encoding gzip is decompressed.
+     * <p>
+     * Every entity is created: the id and updtimestamp of the lines are
+     * assigned again, references to other entities are kept.
+     * <p>
+     * An invalid line stops the import with HTTP status 400, the entities of
+     * the transactions completed before it stay imported.
+     * <p>
+     * Unlike the other endpoints the import runs on the request thread and not
+     * on the EntityRequestExecutor: it lasts as long as the upload of the body,
+     * which baseEntities.async.timeout would cut in the middle of a chunk, and
+     * it would hold a thread of the pool while waiting for the client.
+     *
+     * @param entityClass     The entity name maped in @EntityName("demo") annotation
+     * @param contentType     The Content-Type request header.
+     * @param contentEncoding The Content-Encoding request header, optional.
+     * @param request         The HttpServletRequest the entities are read from.
+     * @return A ResponseEntity containing the number of entities created.
+     * @throws IOException if the request could not be read
+     */
+    @WireFormatMapping(
+            value = "/web/{entityClass}/import",
+            method = RequestMethod.POST,
+            consumes = {APPLICATION_NDJSON_VALUE, WireFormat.APPLICATION_SMILE_VALUE, WireFormat.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<Map<String, Object>> importBaseEntities(@PathVariable("entityClass") String entityClass,
+                                                                  @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                  @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                                                  HttpServletRequest request) throws IOException {
+        logger.info("> importBaseEntities");
+
+        Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
+
+        InputStream in = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(contentEncoding)) {
+            in = new GZIPInputStream(in, 8192);
+        }
+        final ObjectReader reader = entityRegistry.getMetadata(clazz).getReader();
+        List<BaseEntity> chunk = new ArrayList<BaseEntity>(importChunkSize);
+        long created = 0;
+        JsonFactory factory = wireFormatMappers.getFactory(WireFormat.ofContentType(contentType));
+        try (MappingIterator<BaseEntity> entities = reader.readValues(factory.createParser(in))) {
+            while (entities.hasNextValue()) {
+                BaseEntity baseEntity = entities.nextValue();
+                if (baseEntity == null) {
+                    continue;
+                }
+                baseEntity.setId(null);
+                baseEntity.setUpdtimestamp(null);
+                chunk.add(baseEntity);
+                if (chunk.size() == importChunkSize) {
+                    created += baseService.createAll(chunk).size();
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Invalid entity at line "
+                    + (e.getLocation() != null ? e.getLocation().getLineNr() : "?") + ", "
+                    + created + " entities were imported before it: " + e.getOriginalMessage(), e);
+        }
+        if (!chunk.isEmpty()) {
+            created += baseService.createAll(chunk).size();
+        }
+
+        logger.info("< importBaseEntities created:{}", created);
+        return new ResponseEntity<Map<String, Object>>(Collections.<String, Object>singletonMap("created", created),
+                HttpStatus.OK);
+    }
+
+    /**
+     * Web service endpoint to query BaseEntitys entities. The filters, the
+     * order and the fields are applied by the database:
+     * <ul>
+     * <li>filter=attribute:operator:value, repeatable, with the operators eq, ne,
+     * lt, le, gt, ge, like, in (comma separated values), null and notnull</li>
+     * <li>sort=attribute,-attribute, a leading - sorts descending, by id when missing</li>
+     * <li>fields=attribute,attribute, selects only these attributes instead of
+     * the entities</li>
+     * <li>expand=association, fetches the associations of the entities as for
+     * getAll, it can not be combined with fields</li>
+     * </ul>
+     * Attributes are paths like description or demoEntity.id and dates are
+     * given in milliseconds. An unknown attribute or an invalid value gets HTTP
+     * status 400. Conditional requests are answered as for getAll.
+     *
+     * @param entityClass The entity name maped in @EntityName("demo") annotation
+     * @param sort        The attributes to order by, optional.
+     * @param fields      The attributes to be selected, optional.
+     * @param expand      The comma separated associations to be fetched, optional.
+     * @param offset      The number of results to skip, optional.
+     * @param limit       The maximum number of results, optional, capped at baseEntities.page.maxLimit.
+     * @param webRequest  The current request, used for the filters and the conditional headers.
+     * @return A DeferredResult of a ResponseEntity containing a List of BaseEntities or of maps from field to value.
+     */
+    @WireFormatMapping(
+            value = "/web/{entityClass}/query",
+            method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<List<?>>> queryBaseEntities(@PathVariable("entityClass") String entityClass,
+                                                                     @RequestParam(value = "sort", required = false) String sort,
+                                                                     @RequestParam(value = "fields", required = false) String fields,
+                                                                     @RequestParam(value = "expand", required = false) String expand,
+                                                                     @RequestParam(value = "offset", defaultValue = "0") int offset,
+                                                                     @RequestParam(value = "limit", required = false) Integer limit,
+                                                                     WebRequest webRequest) {
+        logger.info("> queryBaseEntities");
+
+        Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
+        List<String> fetchPlan = toFetchPlan(expand);
+
+        if (offset < 0) {
+            throw new InvalidQueryException("The offset can not be negative");
+        }
+        EntityQuery entityQuery = new EntityQuery()
+                .expand(fetchPlan)
+                .offset(offset)
+                .limit(limit == null || limit <= 0 || limit > maxLimit ? maxLimit : limit);
+        String[] filters = webRequest.getParameterValues("filter");
+        if (filters != null) {
+            for (String filter : filters) {
+                String[] parts = filter.split(":", 3);
+                if (parts.length < 2) {
+                    throw new InvalidQueryException("Filter " + filter + " is not attribute:operator:value");
+                }
+                EntityQuery.Operator operator = EntityQuery.Operator.of(parts[1]);
+                String[] values = parts.length < 3 ? new String[0]
+                        : operator == EntityQuery.Operator.IN ? parts[2].split(",") : new String[]{parts[2]};
+                entityQuery.filter(parts[0], operator, values);
+            }
+        }
+        if (StringUtils.hasText(sort)) {
+            for (String attribute : StringUtils.commaDelimitedListToStringArray(sort)) {
+                attribute = attribute.trim();
+                boolean descending = attribute.startsWith("-");
+                entityQuery.sort(descending ? attribute.substring(1) : attribute, !descending);
+            }
+        }
+        if (fields != null) {
+            entityQuery.fields(Arrays.asList(StringUtils.trimArrayElements(StringUtils.commaDelimitedListToStringArray(fields))));
+        }
+        ConditionalRequest conditionalRequest = ConditionalRequest.of(webRequest);
+        WireFormat format = WireFormat.ofAccept(webRequest.getHeader(HttpHeaders.ACCEPT));
+
+        return entityRequestExecutor.submit(() -> {
+            HttpHeaders headers = new HttpHeaders();
+            if (fetchPlan.isEmpty() && checkNotModified(conditionalRequest, baseService.findVersion(clazz), format, headers)) {
+                logger.info("< queryBaseEntities not modified");
+                return new ResponseEntity<List<?>>(headers, HttpStatus.NOT_MODIFIED);
+            }
+
+            List<?> results = baseService.query(clazz, entityQuery);
+
+            logger.info("< queryBaseEntities");
+            return new ResponseEntity<List<?>>(results, headers, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Web service endpoint to read the changes of BaseEntitys entities for an
+     * incremental sync. The response holds the entities created or updated and
+     * the ids of the entities deleted after since, in milliseconds, or after a
+     * cursor returned by a previous call, and the cursor of the next call.
+     * <p>
+     * When more changes are pending a Link header with rel="next" points to
+     * the next page. Changes become visible after baseEntities.changes.lag
+     * milliseconds.
+     *
+     * @param entityClass The entity name maped in @EntityName("demo") annotation
+     * @param since       The timestamp of the first changes in milliseconds, optional.
+     * @param cursor      The cursor returned by the previous call, optional, takes
+     *                    precedence over since.
+     * @param limit       The maximum number of changed and of deleted entities, optional,
+     *                    capped at baseEntities.page.maxLimit.
+     * @return A DeferredResult of a ResponseEntity containing a ChangeSet.
+     */
+    @WireFormatMapping(
+            value = "/web/{entityClass}/changes",
+            method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<ChangeSet<BaseEntity>>> getChanges(@PathVariable("entityClass") String entityClass,
+                                                                            @RequestParam(value = "since", defaultValue = "0") long since,
+                                                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                                                            @RequestParam(value = "limit", required = false) Integer limit) {
+        logger.info("> getChanges");
+
+        Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
+        ChangeCursor changeCursor = cursor != null ? ChangeCursor.parse(cursor) : ChangeCursor.since(since);
+        int pageSize = limit == null || limit <= 0 || limit > maxLimit ? maxLimit : limit;
+
+        return entityRequestExecutor.submit(() -> {
+            ChangeSet<BaseEntity> changeSet = baseService.findChanges(clazz, changeCursor, pageSize);
+
+            HttpHeaders headers = new HttpHeaders();
+            if (changeSet.isMore()) {
+                headers.add(HttpHeaders.LINK, "</web/" + entityClass + "/changes?cursor=" + changeSet.getCursor()
+                        + "&limit=" + pageSize + ">; rel=\"next\"");
+            }
+
+            logger.info("< getChanges");
+            return new ResponseEntity<ChangeSet<BaseEntity>>(changeSet, headers, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Web service endpoint to fetch many BaseEntity entities by primary key
+     * identifier, e.g. <code>/web/demo?ids=1,2,3</code>, in one request. The
+     * cached entities are served from the entity cache and the others are read
+     * with one IN query per chunk of ids.
+     * <p>
+     * The entities found are returned as a JSON array, in the order of the ids,
+     * with HTTP status 200. Ids which do not exist are skipped. More than
+     * baseEntities.ids.maxSize ids are rejected with HTTP status 400.
+     *
+     * @param entityClass The entity name maped in @EntityName("demo") annotation
+     * @param ids         The comma separated primary key identifiers.
+     * @return A DeferredResult of a ResponseEntity containing the entities found.
+     */
+    @WireFormatMapping(
+            value = "/web/{entityClass}",
+            method = RequestMethod.GET,
+            params = "ids")
+    public DeferredResult<ResponseEntity<List<BaseEntity>>> getManyBaseEntities(@PathVariable("entityClass") String entityClass,
+                                                                                @RequestParam("ids") String ids) {
+        return getManyBaseEntities(entityClass, toIds(ids));
+    }
+
+    /**
+     * Web service endpoint to fetch many BaseEntity entities by primary key
+     * identifier, for lists of ids too long for a URL. The HTTP request body is
+     * expected to contain a JSON array of primary key identifiers, the response
+     * is the one of <code>/web/{entityClass}?ids=</code>.
+     *
+     * @param entityClass The entity name maped in @EntityName("demo") annotation
+     * @param ids         The primary key identifiers.
+     * @return A DeferredResult of a ResponseEntity containing the entities found.
+     */
+    @WireFormatBodyMapping(
+            value = "/web/{entityClass}/ids",
+            method = RequestMethod.POST)
+    public DeferredResult<ResponseEntity<List<BaseEntity>>> getManyBaseEntities(@PathVariable("entityClass") String entityClass,
+                                                                                @RequestBody List<Long> ids) {
+        logger.info("> getManyBaseEntities size:{}", ids.size());
 
         Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
+        if (ids.size() > idsMaxSize) {
+            throw new InvalidQueryException("At most " + idsMaxSize + " ids can be fetched at once, got " + ids.size());
+        }
 
-        Collection<BaseEntity> baseEntityies = baseService.findAll(clazz);
+        return entityRequestExecutor.submit(() -> {
+            List<BaseEntity> baseEntities = baseService.findMany(clazz, ids);
 
-        logger.info("< getBaseEntities");
-        return new ResponseEntity<Collection<BaseEntity>>(baseEntityies, HttpStatus.OK);
+            logger.info("< getManyBaseEntities size:{} found:{}", ids.size(), baseEntities.size());
+            return new ResponseEntity<List<BaseEntity>>(baseEntities, HttpStatus.OK);
+        });
     }
 
     /**
@@ -80,29 +603,108 @@ public class BaseController extends ExceptionHandlerController {
      * <p>
      * If not found, the service returns an empty response body with HTTP status
      * 404.
+     * <p>
+     * The response carries an ETag and a Last-Modified header built from the
+     * updtimestamp, the ETag ending with the format for Smile and CBOR and with
+     * the coding for gzip encoded JSON, see {@link EntityTags}. A request whose If-None-Match or If-Modified-Since
+     * matches gets HTTP status 304 without the entity being serialized. The entity is
+     * read through the entity cache, so a warm cache answers without a query.
+     * <p>
+     * Without expand the JSON is written from the {@link EntityResponseCache},
+     * encoded once per version of the entity, and gzip encoded when the request
+     * accepts it. Smile and CBOR are encoded for every request.
+     * <p>
+     * With expand the associations are fetched by a single query as for getAll,
+     * bypassing the cache, and no ETag is sent.
      *
      * @param entityClass The entity name maped in @EntityName("demo") annotation
      * @param id A Long URL path variable containing the BaseEntity primary key
      *           identifier.
-     * @return A ResponseEntity containing a single BaseEntity object, if found,
+     * @param expand      The comma separated associations to be fetched, optional.
+     * @param webRequest  The current request, used for the conditional headers.
+     * @return A DeferredResult of a ResponseEntity containing a single BaseEntity object, if found,
      * and a HTTP status code as described in the method comment.
      */
-    @RequestMapping(
+    @WireFormatMapping(
             value = "/web/{entityClass}/{id}",
-            method = RequestMethod.GET,
-            produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<BaseEntity> getBaseEntity(@PathVariable("entityClass") String entityClass, @PathVariable("id") Long id) {
+            method = RequestMethod.GET)
+    public DeferredResult<ResponseEntity<?>> getBaseEntity(@PathVariable("entityClass") String entityClass,
+                                                           @PathVariable("id") Long id,
+                                                           @RequestParam(value = "expand", required = false) String expand,
+                                                           WebRequest webRequest) {
         logger.info("> getBaseEntity id:{}", id);
 
         Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
+        List<String> fetchPlan = toFetchPlan(expand);
+        ConditionalRequest conditionalRequest = ConditionalRequest.of(webRequest);
+        WireFormat format = WireFormat.ofAccept(webRequest.getHeader(HttpHeaders.ACCEPT));
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        // only the JSON of the response cache is gzip encoded
+        boolean gzip = format == WireFormat.JSON && entityResponseCache.isGzipEnabled()
+                && acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        if (fetchPlan.isEmpty()) {
+            BaseEntity cached = baseService.findCached(clazz, id);
+            if (cached != null) {
+                // a cache hit needs no connection, it is answered on the request thread
+                return entityRequestExecutor.completed(toResponseEntity(cached, fetchPlan, conditionalRequest, format, gzip));
+            }
+        }
+
+        return entityRequestExecutor.submit(() -> {
+            BaseEntity BaseEntity = fetchPlan.isEmpty()
+                    ? baseService.findOne(clazz, id)
+                    : baseService.findOne(clazz, id, fetchPlan);
+            return toResponseEntity(BaseEntity, fetchPlan, conditionalRequest, format, gzip);
+        });
+    }
 
-        BaseEntity BaseEntity = baseService.findOne(clazz, id);
+    /**
+     * Builds the response of getBaseEntity, checking the conditional headers
+     * and writing the encoded JSON when no associations are expanded.
+     *
+     * @param BaseEntity         The entity found, <code>null</code> if none.
+     * @param fetchPlan          The associations fetched with the entity.
+     * @param conditionalRequest The conditional headers of the request.
+     * @param format             The wire format accepted by the request.
+     * @param gzip               Whether the JSON is sent gzip encoded.
+     * @return A ResponseEntity with HTTP status 200, 304 or 404.
+     */
+    private ResponseEntity<?> toResponseEntity(BaseEntity BaseEntity, List<String> fetchPlan,
+                                               ConditionalRequest conditionalRequest, WireFormat format, boolean gzip) {
         if (BaseEntity == null) {
             return new ResponseEntity<BaseEntity>(HttpStatus.NOT_FOUND);
         }
 
+        Long id = BaseEntity.getId();
+        if (!fetchPlan.isEmpty()) {
+            logger.info("< getBaseEntity id:{}", id);
+            return new ResponseEntity<BaseEntity>(BaseEntity, HttpStatus.OK);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (format == WireFormat.JSON)
+            // the JSON is gzip encoded for the requests accepting it
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (BaseEntity.getUpdtimestamp() != null) {
+            long lastModified = BaseEntity.getUpdtimestamp().getTime();
+            if (conditionalRequest.checkNotModified(EntityTags.of(id, lastModified, format, gzip), lastModified, headers)) {
+                logger.info("< getBaseEntity id:{} not modified", id);
+                return new ResponseEntity<BaseEntity>(headers, HttpStatus.NOT_MODIFIED);
+            }
+        }
+
+        if (format != WireFormat.JSON) {
+            logger.info("< getBaseEntity id:{}", id);
+            return new ResponseEntity<BaseEntity>(BaseEntity, headers, HttpStatus.OK);
+        }
+
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        if (gzip)
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+
         logger.info("< getBaseEntity id:{}", id);
-        return new ResponseEntity<BaseEntity>(BaseEntity, HttpStatus.OK);
+        return new ResponseEntity<byte[]>(entityResponseCache.get(BaseEntity, gzip), headers, HttpStatus.OK);
     }
 
     /**
@@ -117,23 +719,23 @@ public class BaseController extends ExceptionHandlerController {
      * with HTTP status 500.
      *
      * @param baseEntity The BaseEntity object to be created.
-     * @return A ResponseEntity containing a single BaseEntity object, if created
+     * @return A DeferredResult of a ResponseEntity containing a single BaseEntity object, if created
      * successfully, and a HTTP status code as described in the method
      * comment.
      */
-    @RequestMapping(
+    @WireFormatBodyMapping(
             value = "/web/{entityClass}",
-            method = RequestMethod.POST,
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE)
-    public <T extends BaseEntity> ResponseEntity<T> createBaseEntity(
+            method = RequestMethod.POST)
+    public <T extends BaseEntity> DeferredResult<ResponseEntity<T>> createBaseEntity(
             @RequestBodyEntityObject("entityObject") T baseEntity) {
         logger.info("> createBaseEntity");
 
-        T savedBaseEntity = baseService.create(baseEntity);
+        return entityRequestExecutor.submit(() -> {
+            T savedBaseEntity = baseService.create(baseEntity);
 
-        logger.info("< createBaseEntity");
-        return new ResponseEntity<T>(savedBaseEntity, HttpStatus.CREATED);
+            logger.info("< createBaseEntity");
+            return new ResponseEntity<T>(savedBaseEntity, HttpStatus.CREATED);
+        });
     }
 
     /**
@@ -144,6 +746,13 @@ public class BaseController extends ExceptionHandlerController {
      * If updated successfully, the persisted BaseEntity is returned as JSON with
      * HTTP status 200.
      * <p>
+     * The version the entity was read at is required, either as the ETag of
+     * the entity in the If-Match header or as the updtimestamp of the body, the
+     * If-Match header takes precedence. Without either the service returns HTTP
+     * status 428, with an If-Match header which is not an ETag of the entity
+     * HTTP status 412 and, if the entity was modified since that version, HTTP
+     * status 409.
+     * <p>
      * If not found, the service returns an empty response body and HTTP status
      * 404.
      * <p>
@@ -152,29 +761,40 @@ public class BaseController extends ExceptionHandlerController {
      *
      * @param baseEntity The BaseEntity object to be updated.
      * @param entityClass The entity name maped in @EntityName("demo") annotation
+     * @param ifMatch The If-Match request header, optional.
      *
-     * @return A ResponseEntity containing a single BaseEntity object, if updated
+     * @return A DeferredResult of a ResponseEntity containing a single BaseEntity object, if updated
      * successfully, and a HTTP status code as described in the method
      * comment.
      */
-    @RequestMapping(
+    @WireFormatBodyMapping(
             value = "/web/{entityClass}/{id}",
-            method = RequestMethod.PUT,
-            consumes = MediaType.APPLICATION_JSON_VALUE,
-            produces = MediaType.APPLICATION_JSON_VALUE)
-    public <T extends BaseEntity> ResponseEntity<T> updateBaseEntity(
+            method = RequestMethod.PUT)
+    public <T extends BaseEntity> DeferredResult<ResponseEntity<T>> updateBaseEntity(
             @RequestBodyEntityObject("entityObject") T baseEntity,
-            @PathVariable("entityClass") String entityClass) {
+            @PathVariable("entityClass") String entityClass,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("> updateBaseEntity id:{}", baseEntity.getId());
 
-        T updatedBaseEntity = baseService.update(baseEntity);
-        if (updatedBaseEntity == null) {
-            return new ResponseEntity<T>(
-                    HttpStatus.INTERNAL_SERVER_ERROR);
+        if (ifMatch != null) {
+            Long version = EntityTags.parseVersion(ifMatch, baseEntity.getId());
+            if (version == null) {
+                logger.info("< updateBaseEntity id:{} precondition failed", baseEntity.getId());
+                return entityRequestExecutor.completed(new ResponseEntity<T>(HttpStatus.PRECONDITION_FAILED));
+            }
+            baseEntity.setUpdtimestamp(new Timestamp(version));
         }
 
-        logger.info("< updateBaseEntity id:{}", baseEntity.getId());
-        return new ResponseEntity<T>(updatedBaseEntity, HttpStatus.OK);
+        return entityRequestExecutor.submit(() -> {
+            T updatedBaseEntity = baseService.update(baseEntity);
+            if (updatedBaseEntity == null) {
+                return new ResponseEntity<T>(
+                        HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+
+            logger.info("< updateBaseEntity id:{}", baseEntity.getId());
+            return new ResponseEntity<T>(updatedBaseEntity, HttpStatus.OK);
+        });
     }
 
     /**
@@ -191,24 +811,163 @@ public class BaseController extends ExceptionHandlerController {
      * @param entityClass The entity name maped in @EntityName("demo") annotation
      * @param id A Long URL path variable containing the BaseEntity primary key
      *           identifier.
-     * @return A ResponseEntity with an empty response body and a HTTP status
+     * @return A DeferredResult of a ResponseEntity with an empty response body and a HTTP status
      * code as described in the method comment.
      */
     @RequestMapping(
             value = "/web/{entityClass}/{id}",
             method = RequestMethod.DELETE)
-    public ResponseEntity<BaseEntity> deleteBaseEntity(
+    public DeferredResult<ResponseEntity<BaseEntity>> deleteBaseEntity(
             @PathVariable("entityClass") String entityClass,
             @PathVariable("id") Long id) {
         logger.info("> deleteBaseEntity id:{}", id);
 
         Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
 
-        baseService.delete(clazz, id);
+        return entityRequestExecutor.submit(() -> {
+            baseService.delete(clazz, id);
+
+            logger.info("< deleteBaseEntity id:{}", id);
+            return new ResponseEntity<BaseEntity>(HttpStatus.NO_CONTENT);
+        });
+    }
+
+    /**
+     * Web service endpoint to create many BaseEntity entities. The HTTP request
+     * body is expected to contain a JSON array of BaseEntity objects. The
+     * entities are persisted in chunks using JDBC batching, in a single
+     * transaction.
+     * <p>
+     * The service returns the result of every item, in request order, with
+     * HTTP status 200. Items with an id are rejected.
+     *
+     * @param baseEntities The BaseEntity objects to be created.
+     * @param <T> type of entityClass
+     * @return A DeferredResult of a ResponseEntity containing the result of every item.
+     */
+    @WireFormatBodyMapping(
+            value = "/web/{entityClass}/batch",
+            method = RequestMethod.POST)
+    public <T extends BaseEntity> DeferredResult<ResponseEntity<List<BatchItemResult>>> createBaseEntities(
+            @RequestBodyEntityObject("entityObject") List<T> baseEntities) {
+        logger.info("> createBaseEntities size:{}", baseEntities.size());
+
+        return entityRequestExecutor.submit(() -> {
+            List<BatchItemResult> results = baseService.createAll(baseEntities);
 
-        logger.info("< deleteBaseEntity id:{}", id);
-        return new ResponseEntity<BaseEntity>(HttpStatus.NO_CONTENT);
+            logger.info("< createBaseEntities size:{}", baseEntities.size());
+            return new ResponseEntity<List<BatchItemResult>>(results, HttpStatus.OK);
+        });
     }
 
+    /**
+     * Web service endpoint to update many BaseEntity entities. The HTTP request
+     * body is expected to contain a JSON array of BaseEntity objects. The
+     * entities are updated in chunks, one statement each, in a single
+     * transaction, and get a new updtimestamp.
+     * <p>
+     * The service returns the result of every item, in request order, with
+     * HTTP status 200. As for a single update every item must have the
+     * updtimestamp it was read at: items without one are reported as
+     * PRECONDITION_REQUIRED, items modified since as CONFLICT and items that
+     * do not exist as NOT_FOUND.
+     *
+     * @param baseEntities The BaseEntity objects to be updated.
+     * @param <T> type of entityClass
+     * @return A DeferredResult of a ResponseEntity containing the result of every item.
+     */
+    @WireFormatBodyMapping(
+            value = "/web/{entityClass}/batch",
+            method = RequestMethod.PUT)
+    public <T extends BaseEntity> DeferredResult<ResponseEntity<List<BatchItemResult>>> updateBaseEntities(
+            @RequestBodyEntityObject("entityObject") List<T> baseEntities) {
+        logger.info("> updateBaseEntities size:{}", baseEntities.size());
+
+        return entityRequestExecutor.submit(() -> {
+            List<BatchItemResult> results = baseService.updateAll(baseEntities);
+
+            logger.info("< updateBaseEntities size:{}", baseEntities.size());
+            return new ResponseEntity<List<BatchItemResult>>(results, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Web service endpoint to delete many BaseEntity entities. The HTTP request
+     * body is expected to contain a JSON array of primary key identifiers.
+     * <p>
+     * The service returns the result of every item, in request order, with
+     * HTTP status 200. Ids that do not exist are reported as NOT_FOUND.
+     *
+     * @param entityClass The entity name maped in @EntityName("demo") annotation
+     * @param ids         The primary key identifiers of the entities to be deleted.
+     * @return A DeferredResult of a ResponseEntity containing the result of every item.
+     */
+    @WireFormatBodyMapping(
+            value = "/web/{entityClass}/batch",
+            method = RequestMethod.DELETE)
+    public DeferredResult<ResponseEntity<List<BatchItemResult>>> deleteBaseEntities(
+            @PathVariable("entityClass") String entityClass,
+            @RequestBody List<Long> ids) {
+        logger.info("> deleteBaseEntities size:{}", ids.size());
+
+        Class clazz = pathVariableToClassMapper.getClassByPath(entityClass);
+
+        return entityRequestExecutor.submit(() -> {
+            List<BatchItemResult> results = baseService.deleteAll(clazz, ids);
+
+            logger.info("< deleteBaseEntities size:{}", ids.size());
+            return new ResponseEntity<List<BatchItemResult>>(results, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Splits the expand request parameter into the associations to be fetched.
+     *
+     * @param expand The comma separated associations, may be <code>null</code>.
+     * @return The associations to be fetched, empty if there are none.
+     */
+    private List<String> toFetchPlan(String expand) {
+        if (!StringUtils.hasText(expand)) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(StringUtils.trimArrayElements(StringUtils.commaDelimitedListToStringArray(expand)));
+    }
+
+    /**
+     * Splits the ids request parameter into primary key identifiers.
+     *
+     * @param ids The comma separated ids.
+     * @return The primary key identifiers.
+     * @throws InvalidQueryException if an id is not a number
+     */
+    private List<Long> toIds(String ids) {
+        List<Long> result = new ArrayList<>();
+        for (String id : StringUtils.commaDelimitedListToStringArray(ids)) {
+            if (!StringUtils.hasText(id))
+                continue;
+            try {
+                result.add(Long.valueOf(id.trim()));
+            } catch (NumberFormatException e) {
+                throw new InvalidQueryException("Invalid id " + id + " in ids");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks the conditional headers of a request against the version of a
+     * collection and adds its ETag and Last-Modified to the response headers.
+     *
+     * @param conditionalRequest The conditional headers of the request.
+     * @param version            The version of the requested collection.
+     * @param format             The format of the response.
+     * @param headers            The headers of the response.
+     * @return <code>true</code> if the response should have HTTP status 304.
+     */
+    private boolean checkNotModified(ConditionalRequest conditionalRequest, CollectionVersion version, WireFormat format,
+                                     HttpHeaders headers) {
+        long lastModified = version.getLastModified() == null ? -1 : version.getLastModified().getTime();
+        return conditionalRequest.checkNotModified(EntityTags.forFormat(version.toETag(), format), lastModified, headers);
+    }
 
 }
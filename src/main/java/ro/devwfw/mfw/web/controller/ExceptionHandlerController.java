@@ -2,15 +2,24 @@ package ro.devwfw.mfw.web.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import ro.devwfw.mfw.repository.InvalidQueryException;
+import ro.devwfw.mfw.service.PreconditionRequiredException;
 import ro.devwfw.mfw.web.DefaultExceptionAttributes;
 import ro.devwfw.mfw.web.ExceptionAttributes;
 
 import javax.persistence.NoResultException;
+import javax.persistence.OptimisticLockException;
 import javax.servlet.http.HttpServletRequest;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * The BaseController class implements common functionality for all Controller
@@ -56,6 +65,185 @@ public class ExceptionHandlerController {
                 HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles invalid client input thrown from web service controller methods,
+     * e.g. a query on an attribute the entity does not have or a request body
+     * which can not be read. Creates a response with Exception Attributes as
+     * JSON and HTTP status code 400, bad request. Other invalid arguments are
+     * errors of the application and are answered with 500.
+     *
+     * @param exception An InvalidQueryException or HttpMessageNotReadableException instance.
+     * @param request   The HttpServletRequest in which the Exception was
+     *                  raised.
+     * @return A ResponseEntity containing the Exception Attributes in the body
+     * and HTTP status code 400.
+     */
+    @ExceptionHandler({InvalidQueryException.class, HttpMessageNotReadableException.class})
+    public ResponseEntity<Map<String, Object>> handleBadRequestException(
+            Exception exception, HttpServletRequest request) {
+
+        logger.info("> handleBadRequestException");
+
+        ExceptionAttributes exceptionAttributes = new DefaultExceptionAttributes();
+
+        Map<String, Object> responseBody = exceptionAttributes
+                .getExceptionAttributes(exception, request,
+                        HttpStatus.BAD_REQUEST);
+
+        logger.info("< handleBadRequestException");
+        return new ResponseEntity<Map<String, Object>>(responseBody,
+                HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles request bodies in a format no message converter reads. Creates a
+     * response with Exception Attributes as JSON, an Accept header listing the
+     * supported media types and HTTP status code 415, unsupported media type.
+     *
+     * @param exception An HttpMediaTypeNotSupportedException instance.
+     * @param request   The HttpServletRequest in which the Exception was
+     *                  raised.
+     * @return A ResponseEntity containing the Exception Attributes in the body
+     * and HTTP status code 415.
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<Map<String, Object>> handleMediaTypeNotSupportedException(
+            HttpMediaTypeNotSupportedException exception, HttpServletRequest request) {
+
+        logger.info("> handleMediaTypeNotSupportedException");
+
+        ExceptionAttributes exceptionAttributes = new DefaultExceptionAttributes();
+
+        Map<String, Object> responseBody = exceptionAttributes
+                .getExceptionAttributes(exception, request,
+                        HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(exception.getSupportedMediaTypes());
+
+        logger.info("< handleMediaTypeNotSupportedException");
+        return new ResponseEntity<Map<String, Object>>(responseBody, headers,
+                HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+
+    /**
+     * Handles optimistic locking failures thrown from web service controller
+     * methods when an entity was modified since the client read it. Creates a
+     * response with Exception Attributes as JSON and HTTP status code 409,
+     * conflict.
+     *
+     * @param exception An OptimisticLockException or OptimisticLockingFailureException instance.
+     * @param request   The HttpServletRequest in which the Exception was
+     *                  raised.
+     * @return A ResponseEntity containing the Exception Attributes in the body
+     * and HTTP status code 409.
+     */
+    @ExceptionHandler({OptimisticLockException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<Map<String, Object>> handleConflictException(
+            Exception exception, HttpServletRequest request) {
+
+        logger.info("> handleConflictException");
+
+        ExceptionAttributes exceptionAttributes = new DefaultExceptionAttributes();
+
+        Map<String, Object> responseBody = exceptionAttributes
+                .getExceptionAttributes(exception, request,
+                        HttpStatus.CONFLICT);
+
+        logger.info("< handleConflictException");
+        return new ResponseEntity<Map<String, Object>>(responseBody,
+                HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles writes without the version the client read the entity at, which
+     * could overwrite a change the client did not see. Creates a response with
+     * Exception Attributes as JSON and HTTP status code 428, precondition
+     * required.
+     *
+     * @param exception A PreconditionRequiredException instance.
+     * @param request   The HttpServletRequest in which the Exception was
+     *                  raised.
+     * @return A ResponseEntity containing the Exception Attributes in the body
+     * and HTTP status code 428.
+     */
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionRequiredException(
+            PreconditionRequiredException exception, HttpServletRequest request) {
+
+        logger.info("> handlePreconditionRequiredException");
+
+        ExceptionAttributes exceptionAttributes = new DefaultExceptionAttributes();
+
+        Map<String, Object> responseBody = exceptionAttributes
+                .getExceptionAttributes(exception, request,
+                        HttpStatus.PRECONDITION_REQUIRED);
+
+        logger.info("< handlePreconditionRequiredException");
+        return new ResponseEntity<Map<String, Object>>(responseBody,
+                HttpStatus.PRECONDITION_REQUIRED);
+    }
+
+    /**
+     * Handles requests rejected because all the threads of the
+     * EntityRequestExecutor are busy and its queue is full. Creates a response
+     * with Exception Attributes as JSON, a Retry-After header and HTTP status
+     * code 429, too many requests.
+     *
+     * @param exception A RejectedExecutionException instance.
+     * @param request   The HttpServletRequest in which the Exception was
+     *                  raised.
+     * @return A ResponseEntity containing the Exception Attributes in the body
+     * and HTTP status code 429.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleRejectedExecutionException(
+            RejectedExecutionException exception, HttpServletRequest request) {
+
+        logger.info("> handleRejectedExecutionException");
+
+        ExceptionAttributes exceptionAttributes = new DefaultExceptionAttributes();
+
+        Map<String, Object> responseBody = exceptionAttributes
+                .getExceptionAttributes(exception, request,
+                        HttpStatus.TOO_MANY_REQUESTS);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+
+        logger.info("< handleRejectedExecutionException");
+        return new ResponseEntity<Map<String, Object>>(responseBody, headers,
+                HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    /**
+     * Handles requests which did not complete within the timeout of the
+     * EntityRequestExecutor. Creates a response with Exception Attributes as
+     * JSON and HTTP status code 503, service unavailable.
+     *
+     * @param exception A TimeoutException instance.
+     * @param request   The HttpServletRequest in which the Exception was
+     *                  raised.
+     * @return A ResponseEntity containing the Exception Attributes in the body
+     * and HTTP status code 503.
+     */
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleTimeoutException(
+            TimeoutException exception, HttpServletRequest request) {
+
+        logger.info("> handleTimeoutException");
+
+        ExceptionAttributes exceptionAttributes = new DefaultExceptionAttributes();
+
+        Map<String, Object> responseBody = exceptionAttributes
+                .getExceptionAttributes(exception, request,
+                        HttpStatus.SERVICE_UNAVAILABLE);
+
+        logger.info("< handleTimeoutException");
+        return new ResponseEntity<Map<String, Object>>(responseBody,
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Handles all Exceptions not addressed by more specific
      * <code>@ExceptionHandler</code> methods. Creates a response with the
@@ -1,6 +1,6 @@
-INSERT INTO DemoEntity (updtimestamp,description) VALUES ('2014-02-14 00:00:00','Hello World!');
-INSERT INTO DemoEntity (updtimestamp,description) VALUES ('2014-02-14 00:00:00','Hola Mundo!');
+INSERT INTO DemoEntity (id,updtimestamp,description) VALUES (1,'2014-02-14 00:00:00','Hello World!');
+INSERT INTO DemoEntity (id,updtimestamp,description) VALUES (2,'2014-02-14 00:00:00','Hola Mundo!');
 
-INSERT INTO SecondEntity (updtimestamp,extraProperty,demoEntity) VALUES ('2014-02-14 00:00:00','Extra property for demoEntity 1',1);
-INSERT INTO SecondEntity (updtimestamp,extraProperty,demoEntity) VALUES ('2014-02-14 00:00:00','Extra property for demoEntity 2',2);
-INSERT INTO SecondEntity (updtimestamp,extraProperty,demoEntity) VALUES ('2014-02-14 00:00:00','Extra property for demoEntity 3',1);
+INSERT INTO SecondEntity (id,updtimestamp,extraProperty,demoEntity) VALUES (1,'2014-02-14 00:00:00','Extra property for demoEntity 1',1);
+INSERT INTO SecondEntity (id,updtimestamp,extraProperty,demoEntity) VALUES (2,'2014-02-14 00:00:00','Extra property for demoEntity 2',2);
+INSERT INTO SecondEntity (id,updtimestamp,extraProperty,demoEntity) VALUES (3,'2014-02-14 00:00:00','Extra property for demoEntity 3',1);
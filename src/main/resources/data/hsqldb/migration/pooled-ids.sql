@@ -0,0 +1,19 @@
+-- Moves an existing database from IDENTITY ids to the sequences of
+-- PooledSequenceGenerator. Run it once, with the application stopped.
+--
+-- Every value of a sequence reserves the 50 ids up to it, 50 being
+-- PooledSequenceGenerator.ALLOCATION_SIZE, so the sequences are incremented by
+-- 50 and advanced past the greatest existing id: the SELECT reads one value
+-- for every 50 ids of the table.
+
+ALTER TABLE DemoEntity ALTER COLUMN id DROP GENERATED;
+ALTER TABLE SecondEntity ALTER COLUMN id DROP GENERATED;
+ALTER TABLE EntityTombstone ALTER COLUMN id DROP GENERATED;
+
+CREATE SEQUENCE DemoEntity_SEQ AS BIGINT START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE SecondEntity_SEQ AS BIGINT START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE EntityTombstone_SEQ AS BIGINT START WITH 50 INCREMENT BY 50;
+
+SELECT NEXT VALUE FOR DemoEntity_SEQ FROM UNNEST(SEQUENCE_ARRAY(0, (SELECT COALESCE(MAX(id), 0) - 1 FROM DemoEntity), 50));
+SELECT NEXT VALUE FOR SecondEntity_SEQ FROM UNNEST(SEQUENCE_ARRAY(0, (SELECT COALESCE(MAX(id), 0) - 1 FROM SecondEntity), 50));
+SELECT NEXT VALUE FOR EntityTombstone_SEQ FROM UNNEST(SEQUENCE_ARRAY(0, (SELECT COALESCE(MAX(id), 0) - 1 FROM EntityTombstone), 50));
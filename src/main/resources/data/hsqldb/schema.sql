@@ -1,17 +1,38 @@
 DROP TABLE DemoEntity IF EXISTS;
 
+-- the ids are reserved by PooledSequenceGenerator, every value of a sequence
+-- reserves the allocation size ids up to it, so a sequence is incremented by
+-- PooledSequenceGenerator.ALLOCATION_SIZE, checked at startup, and starts at
+-- least at the allocation size plus the greatest id of data.sql
+CREATE SEQUENCE DemoEntity_SEQ AS BIGINT START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE SecondEntity_SEQ AS BIGINT START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE EntityTombstone_SEQ AS BIGINT START WITH 100 INCREMENT BY 50;
+
 CREATE TABLE DemoEntity (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH 1, INCREMENT BY 1) NOT NULL,
+  id BIGINT NOT NULL,
   updtimestamp timestamp default SYSDATE,
   description VARCHAR(100) NOT NULL,
   PRIMARY KEY(id)
 );
 
 CREATE TABLE SecondEntity (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY (START WITH 1, INCREMENT BY 1) NOT NULL,
+  id BIGINT NOT NULL,
   updtimestamp timestamp default SYSDATE,
   extraProperty VARCHAR(100) NOT NULL,
   demoEntity BIGINT NOT NULL,
   PRIMARY KEY(id),
   FOREIGN KEY (demoEntity) REFERENCES DemoEntity(id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE EntityTombstone (
+  id BIGINT NOT NULL,
+  entityType VARCHAR(100) NOT NULL,
+  entityId BIGINT NOT NULL,
+  deletedAt timestamp NOT NULL,
+  PRIMARY KEY(id)
+);
+
+-- the change feed reads the rows in (updtimestamp, id) order after a cursor
+CREATE INDEX DemoEntity_updtimestamp ON DemoEntity (updtimestamp, id);
+CREATE INDEX SecondEntity_updtimestamp ON SecondEntity (updtimestamp, id);
+CREATE INDEX EntityTombstone_deletedAt ON EntityTombstone (entityType, deletedAt, id);
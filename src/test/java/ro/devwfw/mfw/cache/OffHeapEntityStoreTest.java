@@ -0,0 +1,149 @@
+package ro.devwfw.mfw.cache;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the block allocation, the LRU eviction and the expiry of the
+ * OffHeapEntityStore on a single segment of four 16 byte blocks.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class OffHeapEntityStoreTest {
+
+    private static final int BLOCK_SIZE = 16;
+
+    private static final String REGION = "demo";
+
+    private final OffHeapEntityStore store = new OffHeapEntityStore(4 * BLOCK_SIZE, BLOCK_SIZE, 1, 0);
+
+    @Test
+    public void putSpreadsTheBytesOverBlocks() {
+        byte[] bytes = bytes(40, 1);
+
+        assertTrue(store.put(REGION, 1L, bytes));
+
+        assertEquals(4 * BLOCK_SIZE, store.getCapacity());
+        assertEquals(3 * BLOCK_SIZE, store.getUsedBytes());
+        assertArrayEquals(bytes, store.get(REGION, 1L));
+    }
+
+    @Test
+    public void takeFreesTheBlocks() {
+        byte[] bytes = bytes(40, 1);
+        store.put(REGION, 1L, bytes);
+
+        assertArrayEquals(bytes, store.take(REGION, 1L));
+
+        assertNull(store.get(REGION, 1L));
+        assertEquals(0, store.getUsedBytes());
+        assertEquals(0, store.getSize());
+    }
+
+    @Test
+    public void putOfAnExistingIdFreesTheOldBlocks() {
+        store.put(REGION, 1L, bytes(40, 1));
+        byte[] bytes = bytes(10, 2);
+
+        store.put(REGION, 1L, bytes);
+
+        assertEquals(BLOCK_SIZE, store.getUsedBytes());
+        assertArrayEquals(bytes, store.get(REGION, 1L));
+    }
+
+    @Test
+    public void freedBlocksAreReusedWithoutEviction() {
+        store.put(REGION, 1L, bytes(32, 1));
+        store.put(REGION, 2L, bytes(32, 2));
+        store.remove(REGION, 1L);
+
+        byte[] bytes = bytes(32, 3);
+        store.put(REGION, 3L, bytes);
+
+        assertEquals(0, store.getEvictionCount());
+        assertArrayEquals(bytes(32, 2), store.get(REGION, 2L));
+        assertArrayEquals(bytes, store.get(REGION, 3L));
+    }
+
+    @Test
+    public void exhaustedBlocksEvictTheLeastRecentlyUsedEntries() {
+        for (long id = 1; id <= 4; id++) {
+            store.put(REGION, id, bytes(BLOCK_SIZE, (int) id));
+        }
+        // 1 becomes the most recently used
+        assertNotNull(store.get(REGION, 1L));
+
+        store.put(REGION, 5L, bytes(BLOCK_SIZE, 5));
+
+        assertEquals(1, store.getEvictionCount());
+        assertNull(store.get(REGION, 2L));
+        assertNotNull(store.get(REGION, 1L));
+
+        // 1 was read again after 5 was put, so 3 blocks evict 3, 4 and 5
+        store.put(REGION, 6L, bytes(3 * BLOCK_SIZE, 6));
+
+        assertEquals(4, store.getEvictionCount());
+        assertNull(store.get(REGION, 3L));
+        assertNull(store.get(REGION, 4L));
+        assertNull(store.get(REGION, 5L));
+        assertArrayEquals(bytes(BLOCK_SIZE, 1), store.get(REGION, 1L));
+        assertArrayEquals(bytes(3 * BLOCK_SIZE, 6), store.get(REGION, 6L));
+        assertEquals(4 * BLOCK_SIZE, store.getUsedBytes());
+    }
+
+    @Test
+    public void bytesLargerThanASegmentAreNotStored() {
+        store.put(REGION, 1L, bytes(BLOCK_SIZE, 1));
+
+        assertFalse(store.put(REGION, 2L, bytes(5 * BLOCK_SIZE, 2)));
+
+        assertEquals(0, store.getEvictionCount());
+        assertNotNull(store.get(REGION, 1L));
+    }
+
+    @Test
+    public void removeOfARegionKeepsTheOtherRegions() {
+        store.put(REGION, 1L, bytes(BLOCK_SIZE, 1));
+        store.put("second", 1L, bytes(BLOCK_SIZE, 2));
+
+        store.remove(REGION, null);
+
+        assertNull(store.get(REGION, 1L));
+        assertArrayEquals(bytes(BLOCK_SIZE, 2), store.get("second", 1L));
+    }
+
+    @Test
+    public void expiredEntriesAreDroppedWhenRead() throws InterruptedException {
+        OffHeapEntityStore expiring = new OffHeapEntityStore(4 * BLOCK_SIZE, BLOCK_SIZE, 1, 50);
+        expiring.put(REGION, 1L, bytes(BLOCK_SIZE, 1));
+        expiring.put(REGION, 2L, bytes(BLOCK_SIZE, 2));
+        assertNotNull(expiring.get(REGION, 1L));
+
+        Thread.sleep(100);
+
+        assertNull(expiring.get(REGION, 1L));
+        assertNull(expiring.take(REGION, 2L));
+        assertEquals(0, expiring.getSize());
+        assertEquals(0, expiring.getUsedBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blocksSmallerThan16BytesAreRejected() {
+        new OffHeapEntityStore(1024, 8, 1, 0);
+    }
+
+    private static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
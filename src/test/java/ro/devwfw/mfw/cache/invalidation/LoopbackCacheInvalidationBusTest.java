@@ -0,0 +1,122 @@
+package ro.devwfw.mfw.cache.invalidation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.devwfw.mfw.Application;
+import ro.devwfw.mfw.cache.EntityCache;
+import ro.devwfw.mfw.cache.EntityCacheManager;
+import ro.devwfw.mfw.model.DemoEntity;
+import ro.devwfw.mfw.model.SecondEntity;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Starts a second EntityCacheManager on the LoopbackCacheInvalidationBus of
+ * the application, as a second instance would be, and checks that the
+ * evictions of one of them reach the regions of the other, and that an
+ * eviction made in a transaction applies to the local region again after the
+ * commit.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+@WebAppConfiguration
+public class LoopbackCacheInvalidationBusTest {
+
+    /**
+     * an id which is not in the database, the entries are put by the test
+     */
+    private static final Long ID = 1000L;
+
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private EntityCacheManager otherInstance;
+
+    @Before
+    public void startOtherInstance() {
+        otherInstance = beanFactory.createBean(EntityCacheManager.class);
+    }
+
+    @After
+    public void stopOtherInstance() {
+        beanFactory.destroyBean(otherInstance);
+        entityCacheManager.getCache(DemoEntity.class).invalidate(ID);
+        entityCacheManager.getCache(SecondEntity.class).invalidate(ID);
+    }
+
+    @Test
+    public void evictEvictsTheEntityOnTheOtherInstance() {
+        EntityCache cache = entityCacheManager.getCache(DemoEntity.class);
+        EntityCache otherCache = otherInstance.getCache(DemoEntity.class);
+        cache.put(ID, demoEntity());
+        otherCache.put(ID, demoEntity());
+
+        cache.evict(ID);
+
+        assertNull(otherCache.getIfPresent(ID));
+    }
+
+    @Test
+    public void evictKeepsTheOtherRegionsOfTheOtherInstance() {
+        SecondEntity secondEntity = new SecondEntity();
+        secondEntity.setId(ID);
+        otherInstance.getCache(SecondEntity.class).put(ID, secondEntity);
+        otherInstance.getCache(DemoEntity.class).put(ID, demoEntity());
+
+        entityCacheManager.getCache(DemoEntity.class).evict(ID);
+
+        assertNotNull(otherInstance.getCache(SecondEntity.class).getIfPresent(ID));
+        assertNull(otherInstance.getCache(DemoEntity.class).getIfPresent(ID));
+    }
+
+    @Test
+    public void clearClearsTheRegionOnTheOtherInstance() {
+        EntityCache otherCache = otherInstance.getCache(DemoEntity.class);
+        otherCache.put(ID, demoEntity());
+
+        entityCacheManager.getCache(DemoEntity.class).clear();
+
+        assertNull(otherCache.getIfPresent(ID));
+    }
+
+    @Test
+    public void entryReloadedBeforeTheCommitIsEvictedAfterIt() {
+        EntityCache cache = entityCacheManager.getCache(DemoEntity.class);
+        cache.put(ID, demoEntity());
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            cache.evict(ID);
+            // a concurrent findOne reloads the row as it was before the commit
+            cache.put(ID, demoEntity());
+            return null;
+        });
+
+        assertNull(cache.getIfPresent(ID));
+    }
+
+    private static DemoEntity demoEntity() {
+        DemoEntity demoEntity = new DemoEntity();
+        demoEntity.setId(ID);
+        demoEntity.setDescription("cached");
+        return demoEntity;
+    }
+}
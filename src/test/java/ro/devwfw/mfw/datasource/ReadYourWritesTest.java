@@ -0,0 +1,131 @@
+package ro.devwfw.mfw.datasource;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ro.devwfw.mfw.Application;
+import ro.devwfw.mfw.web.component.RoutingSessionInterceptor;
+
+import javax.servlet.http.Cookie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Runs the application on two in-memory HSQLDB databases, a primary and a
+ * replica which is loaded with the same data but never receives the writes,
+ * so a read routed to the replica does not see them. An entity created by a
+ * session is read back from the primary by the next request of the session,
+ * identified by the X-Routing-Session header or by the ROUTING_SESSION cookie
+ * set on the write, while the requests of other sessions go to the replica.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+@WebAppConfiguration
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:hsqldb:mem:ryw-primary",
+        "dataSourceRouting.replicas[0].url=jdbc:hsqldb:mem:ryw-replica",
+        "dataSourceRouting.readYourWritesWindow=60000"})
+public class ReadYourWritesTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    private MockMvc mockMvc;
+
+    /**
+     * Creates the replica with the schema and the data of the primary before
+     * the application checks it.
+     */
+    @BeforeClass
+    public static void createReplica() {
+        DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:hsqldb:mem:ryw-replica", "sa", "");
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(
+                new ClassPathResource("data/hsqldb/schema.sql"), new ClassPathResource("data/hsqldb/data.sql")), replica);
+    }
+
+    @Before
+    public void createMockMvc() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        assertEquals(1, replicaRoutingDataSource.getHealthyReplicaCount());
+    }
+
+    @Test
+    public void readAfterWriteWithTheIssuedCookieGoesToThePrimary() throws Exception {
+        MockHttpServletResponse created = perform(post("/web/demo")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"written by cookie\"}"));
+        assertEquals(201, created.getStatus());
+        Cookie cookie = created.getCookie(RoutingSessionInterceptor.SESSION_COOKIE);
+        assertNotNull(cookie);
+
+        long primaryReads = replicaRoutingDataSource.getPrimaryReads();
+        String sameSession = perform(get("/web/demo/getAll").cookie(cookie)).getContentAsString();
+        assertTrue(sameSession, sameSession.contains("written by cookie"));
+        assertTrue(replicaRoutingDataSource.getPrimaryReads() > primaryReads);
+
+        long replicaReads = replicaRoutingDataSource.getReplicaReads();
+        String otherSession = perform(get("/web/demo/getAll")).getContentAsString();
+        assertFalse(otherSession, otherSession.contains("written by cookie"));
+        assertTrue(replicaRoutingDataSource.getReplicaReads() > replicaReads);
+    }
+
+    @Test
+    public void readAfterWriteWithTheSameTokenGoesToThePrimary() throws Exception {
+        MockHttpServletResponse created = perform(post("/web/demo")
+                .header(RoutingSessionInterceptor.SESSION_HEADER, "client-1")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"written by token\"}"));
+        assertEquals(201, created.getStatus());
+        // a client sending a token gets no cookie
+        assertEquals(null, created.getCookie(RoutingSessionInterceptor.SESSION_COOKIE));
+
+        String sameSession = perform(get("/web/demo/getAll")
+                .header(RoutingSessionInterceptor.SESSION_HEADER, "client-1")).getContentAsString();
+        assertTrue(sameSession, sameSession.contains("written by token"));
+
+        String otherSession = perform(get("/web/demo/getAll")
+                .header(RoutingSessionInterceptor.SESSION_HEADER, "client-2")).getContentAsString();
+        assertFalse(otherSession, otherSession.contains("written by token"));
+    }
+
+    private MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (!result.getRequest().isAsyncStarted()) {
+            return result.getResponse();
+        }
+        result.getAsyncResult();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+        // a container writes both dispatches to the same response
+        for (Cookie cookie : result.getResponse().getCookies()) {
+            response.addCookie(cookie);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,40 @@
+package ro.devwfw.mfw.repository;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that a ChangeCursor is read back from the text it is written as and
+ * that a malformed cursor is rejected as invalid query input.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class ChangeCursorTest {
+
+    @Test
+    public void parseReadsTheTextWrittenByToString() {
+        ChangeCursor cursor = ChangeCursor.parse(new ChangeCursor(1392336000000L, 7, 1392336000005L, 101).toString());
+
+        assertEquals(1392336000000L, cursor.getUpdatedAt());
+        assertEquals(7, cursor.getUpdatedId());
+        assertEquals(1392336000005L, cursor.getDeletedAt());
+        assertEquals(101, cursor.getDeletedId());
+    }
+
+    @Test
+    public void sinceStartsBothStreamsBeforeTheFirstId() {
+        assertEquals("1000.0.1000.0", ChangeCursor.since(1000).toString());
+    }
+
+    @Test(expected = InvalidQueryException.class)
+    public void parseRejectsAMissingPart() {
+        ChangeCursor.parse("1000.1.1000");
+    }
+
+    @Test(expected = InvalidQueryException.class)
+    public void parseRejectsAPartWhichIsNotANumber() {
+        ChangeCursor.parse("1000.1.x.1");
+    }
+}
@@ -0,0 +1,89 @@
+package ro.devwfw.mfw.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ro.devwfw.mfw.Application;
+import ro.devwfw.mfw.model.DemoEntity;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Checks the version of every item of a batch update as for a single update:
+ * an item read before a later change is a conflict and leaves the row as it
+ * is, an item without its updtimestamp requires it. The test has its own
+ * in-memory database.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+@WebAppConfiguration
+@TestPropertySource(properties = "spring.datasource.url=jdbc:hsqldb:mem:batchupdate")
+public class BatchUpdateTest {
+
+    @Autowired
+    private BaseService baseService;
+
+    @Test
+    public void staleItemsAreConflictsAndKeepTheNewerRow() throws Exception {
+        DemoEntity first = create("first");
+        DemoEntity second = create("second");
+        Timestamp read = first.getUpdtimestamp();
+
+        // the updtimestamp is the version, a later change gets a later millisecond
+        Thread.sleep(5);
+        List<BatchItemResult> updated = baseService.updateAll(Arrays.asList(
+                copy(first.getId(), read, "first by another client")));
+        assertEquals(BatchItemResult.Status.UPDATED, updated.get(0).getStatus());
+
+        List<BatchItemResult> results = baseService.updateAll(Arrays.asList(
+                copy(first.getId(), read, "first by a stale client"),
+                copy(second.getId(), second.getUpdtimestamp(), "second updated"),
+                copy(second.getId(), null, "second without version"),
+                copy(Long.MAX_VALUE, read, "not found")));
+
+        assertEquals(Arrays.asList(BatchItemResult.Status.CONFLICT, BatchItemResult.Status.UPDATED,
+                BatchItemResult.Status.PRECONDITION_REQUIRED, BatchItemResult.Status.NOT_FOUND), statuses(results));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals("first by another client", baseService.findOne(DemoEntity.class, first.getId()).getDescription());
+        DemoEntity secondUpdated = baseService.findOne(DemoEntity.class, second.getId());
+        assertEquals("second updated", secondUpdated.getDescription());
+        assertNotEquals(second.getUpdtimestamp(), secondUpdated.getUpdtimestamp());
+    }
+
+    private DemoEntity create(String description) {
+        DemoEntity demoEntity = new DemoEntity();
+        demoEntity.setDescription(description);
+        return baseService.create(demoEntity);
+    }
+
+    private static DemoEntity copy(Long id, Timestamp updtimestamp, String description) {
+        DemoEntity demoEntity = new DemoEntity();
+        demoEntity.setId(id);
+        demoEntity.setUpdtimestamp(updtimestamp);
+        demoEntity.setDescription(description);
+        return demoEntity;
+    }
+
+    private static List<BatchItemResult.Status> statuses(List<BatchItemResult> results) {
+        List<BatchItemResult.Status> statuses = new ArrayList<>(results.size());
+        for (BatchItemResult result : results) {
+            statuses.add(result.getStatus());
+        }
+        return statuses;
+    }
+}
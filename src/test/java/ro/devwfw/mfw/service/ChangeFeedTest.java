@@ -0,0 +1,138 @@
+package ro.devwfw.mfw.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ro.devwfw.mfw.Application;
+import ro.devwfw.mfw.model.DemoEntity;
+import ro.devwfw.mfw.repository.ChangeCursor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Follows the change feed of the BaseService with the cursors it returns: a
+ * consumer resuming after a delete reads the tombstone once and the changes
+ * it already read not again, and pages of tombstones deleted in the same
+ * millisecond are ordered by id, and the rows of a batch update are read as
+ * changes. The lag is 0, so the changes are visible as soon as they are
+ * committed, and the test has its own in-memory database.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+@WebAppConfiguration
+@TestPropertySource(properties = {"baseEntities.changes.lag=0", "spring.datasource.url=jdbc:hsqldb:mem:changefeed"})
+public class ChangeFeedTest {
+
+    @Autowired
+    private BaseService baseService;
+
+    /**
+     * the cursor after every change made before the test
+     */
+    private String cursor;
+
+    @Before
+    public void readAllChanges() {
+        ChangeSet<DemoEntity> changeSet;
+        ChangeCursor next = ChangeCursor.since(0);
+        do {
+            changeSet = baseService.findChanges(DemoEntity.class, next, 100);
+            next = ChangeCursor.parse(changeSet.getCursor());
+        } while (changeSet.isMore());
+        cursor = changeSet.getCursor();
+    }
+
+    @Test
+    public void cursorResumesAfterADelete() {
+        DemoEntity first = create("first");
+        DemoEntity second = create("second");
+
+        ChangeSet<DemoEntity> created = baseService.findChanges(DemoEntity.class, ChangeCursor.parse(cursor), 10);
+        assertEquals(Arrays.asList(first.getId(), second.getId()), ids(created.getChanged()));
+        assertTrue(created.getDeleted().isEmpty());
+
+        baseService.delete(DemoEntity.class, first.getId());
+
+        ChangeSet<DemoEntity> deleted = baseService.findChanges(DemoEntity.class, ChangeCursor.parse(created.getCursor()), 10);
+        assertTrue(deleted.getChanged().isEmpty());
+        assertEquals(Collections.singletonList(first.getId()), deleted.getDeleted());
+
+        ChangeSet<DemoEntity> none = baseService.findChanges(DemoEntity.class, ChangeCursor.parse(deleted.getCursor()), 10);
+        assertTrue(none.getChanged().isEmpty());
+        assertTrue(none.getDeleted().isEmpty());
+        assertFalse(none.isMore());
+    }
+
+    @Test
+    public void pagesTombstonesOfTheSameMillisecondById() {
+        List<Long> ids = Arrays.asList(create("a").getId(), create("b").getId(), create("c").getId());
+        String created = baseService.findChanges(DemoEntity.class, ChangeCursor.parse(cursor), 10).getCursor();
+
+        // the tombstones of one deleteAll share their deletedAt
+        baseService.deleteAll(DemoEntity.class, ids);
+
+        List<Long> deleted = new ArrayList<>();
+        ChangeSet<DemoEntity> page;
+        ChangeCursor next = ChangeCursor.parse(created);
+        do {
+            page = baseService.findChanges(DemoEntity.class, next, 1);
+            assertTrue(page.getChanged().isEmpty());
+            assertTrue(page.getDeleted().size() <= 1);
+            deleted.addAll(page.getDeleted());
+            next = ChangeCursor.parse(page.getCursor());
+        } while (page.isMore());
+
+        assertEquals(ids, deleted);
+    }
+
+    @Test
+    public void batchUpdatesAreChanges() throws Exception {
+        DemoEntity first = create("first");
+        DemoEntity second = create("second");
+        String created = baseService.findChanges(DemoEntity.class, ChangeCursor.parse(cursor), 10).getCursor();
+
+        // the updtimestamp is the version, the update gets a later millisecond
+        Thread.sleep(5);
+        DemoEntity update = new DemoEntity();
+        update.setId(second.getId());
+        update.setUpdtimestamp(second.getUpdtimestamp());
+        update.setDescription("second updated");
+        List<BatchItemResult> results = baseService.updateAll(Collections.singletonList(update));
+        assertEquals(BatchItemResult.Status.UPDATED, results.get(0).getStatus());
+        assertTrue(update.getUpdtimestamp().after(second.getUpdtimestamp()));
+
+        ChangeSet<DemoEntity> updated = baseService.findChanges(DemoEntity.class, ChangeCursor.parse(created), 10);
+        assertEquals(Collections.singletonList(second.getId()), ids(updated.getChanged()));
+        assertEquals("second updated", updated.getChanged().get(0).getDescription());
+        assertFalse(ids(updated.getChanged()).contains(first.getId()));
+    }
+
+    private DemoEntity create(String description) {
+        DemoEntity demoEntity = new DemoEntity();
+        demoEntity.setDescription(description);
+        return baseService.create(demoEntity);
+    }
+
+    private static List<Long> ids(List<DemoEntity> demoEntities) {
+        List<Long> ids = new ArrayList<>(demoEntities.size());
+        for (DemoEntity demoEntity : demoEntities) {
+            ids.add(demoEntity.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,80 @@
+package ro.devwfw.mfw.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import ro.devwfw.mfw.Application;
+import ro.devwfw.mfw.model.SecondEntity;
+import ro.devwfw.mfw.utils.querycount.QueryCounter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Guards the fetch plans of the BaseService against N+1 selects with the
+ * {@link QueryCounter}: the expanded associations are fetched by the query of
+ * the entities and the others are written as id references without a query.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+@WebAppConfiguration
+public class FetchPlanQueryCountTest {
+
+    private static final List<String> EXPAND_DEMO_ENTITY = Collections.singletonList("demoEntity");
+
+    @Autowired
+    private BaseService baseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void findAllWithoutExpandWritesReferencesWithoutQueries() throws Exception {
+        QueryCounter.reset();
+        Collection<SecondEntity> secondEntities = baseService.findAll(SecondEntity.class, Collections.<String>emptyList());
+        String json = objectMapper.writeValueAsString(secondEntities);
+        QueryCounter.assertCount(1);
+
+        assertFalse(secondEntities.isEmpty());
+        assertTrue(json, json.contains("\"demoEntity\":{\"id\":1}"));
+        assertFalse(json, json.contains("\"description\""));
+    }
+
+    @Test
+    public void findAllWithExpandFetchesTheAssociationInTheSameQuery() throws Exception {
+        QueryCounter.reset();
+        Collection<SecondEntity> secondEntities = baseService.findAll(SecondEntity.class, EXPAND_DEMO_ENTITY);
+        String json = objectMapper.writeValueAsString(secondEntities);
+        QueryCounter.assertCount(1);
+
+        assertFalse(secondEntities.isEmpty());
+        assertTrue(json, json.contains("\"description\":\"Hello World!\""));
+    }
+
+    @Test
+    public void findOneWithExpandFetchesTheAssociationInTheSameQuery() throws Exception {
+        SecondEntity secondEntity = QueryCounter.expect(1, () -> baseService.findOne(SecondEntity.class, 1L, EXPAND_DEMO_ENTITY));
+        String json = QueryCounter.expect(0, () -> {
+            try {
+                return objectMapper.writeValueAsString(secondEntity);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(Long.valueOf(1L), secondEntity.getDemoEntity().getId());
+        assertTrue(json, json.contains("\"description\":\"Hello World!\""));
+    }
+}
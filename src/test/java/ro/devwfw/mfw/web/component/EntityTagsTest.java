@@ -0,0 +1,38 @@
+package ro.devwfw.mfw.web.component;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Reads the version back from the entity tags of every representation of an
+ * entity, as sent in If-Match.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+public class EntityTagsTest {
+
+    private static final Long ID = 1L;
+
+    private static final long VERSION = 1392336000000L;
+
+    @Test
+    public void parseVersionReadsEveryFormatAndCoding() {
+        assertEquals("\"1-1392336000000\"", EntityTags.of(ID, VERSION, WireFormat.JSON));
+        assertEquals("\"1-1392336000000-gzip\"", EntityTags.of(ID, VERSION, WireFormat.JSON, true));
+        assertEquals("\"1-1392336000000-cbor\"", EntityTags.of(ID, VERSION, WireFormat.CBOR));
+
+        assertEquals(Long.valueOf(VERSION), EntityTags.parseVersion(EntityTags.of(ID, VERSION, WireFormat.JSON), ID));
+        assertEquals(Long.valueOf(VERSION), EntityTags.parseVersion(EntityTags.of(ID, VERSION, WireFormat.JSON, true), ID));
+        assertEquals(Long.valueOf(VERSION), EntityTags.parseVersion(EntityTags.of(ID, VERSION, WireFormat.SMILE), ID));
+    }
+
+    @Test
+    public void parseVersionRejectsWeakAndForeignTags() {
+        assertNull(EntityTags.parseVersion("W/\"1-1392336000000-gzip\"", ID));
+        assertNull(EntityTags.parseVersion("\"2-1392336000000\"", ID));
+        assertNull(EntityTags.parseVersion("\"1-gzip\"", ID));
+    }
+}
@@ -0,0 +1,91 @@
+package ro.devwfw.mfw.web.controller;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ro.devwfw.mfw.Application;
+import ro.devwfw.mfw.web.component.WireFormat;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Checks the caching headers of the /web routes: a response negotiated from
+ * the Accept header varies by it, next to Accept-Encoding when it is
+ * compressed, and a gzip encoded entity has its own strong ETag.
+ *
+ * @author LaurentiuM
+ * @version createdOn: 10/18/26
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = Application.class)
+@WebAppConfiguration
+public class ResponseHeadersTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void createMockMvc() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    public void exportVariesByAcceptAndAcceptEncoding() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/web/demo/export")
+                .header(HttpHeaders.ACCEPT, WireFormat.APPLICATION_CBOR_VALUE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn().getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(WireFormat.APPLICATION_CBOR_VALUE, response.getContentType());
+        List<String> vary = response.getHeaders(HttpHeaders.VARY);
+        assertTrue(vary.toString(), vary.contains(HttpHeaders.ACCEPT));
+        assertTrue(vary.toString(), vary.contains(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    public void gzipEncodedEntityHasItsOwnETag() throws Exception {
+        MockHttpServletResponse identity = perform(get("/web/demo/1"));
+        MockHttpServletResponse gzip = perform(get("/web/demo/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        assertEquals(200, gzip.getStatus());
+        assertEquals("gzip", gzip.getHeader(HttpHeaders.CONTENT_ENCODING));
+        String etag = gzip.getHeader(HttpHeaders.ETAG);
+        assertTrue(etag, etag.startsWith("\"") && etag.endsWith("-gzip\""));
+        assertNotEquals(identity.getHeader(HttpHeaders.ETAG), etag);
+
+        MockHttpServletResponse notModified = perform(get("/web/demo/1")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(304, notModified.getStatus());
+        assertTrue(notModified.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+        // the identity encoded representation does not match the tag of the gzip one
+        assertEquals(200, perform(get("/web/demo/1").header(HttpHeaders.IF_NONE_MATCH, etag)).getStatus());
+    }
+
+    private MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (!result.getRequest().isAsyncStarted()) {
+            return result.getResponse();
+        }
+        result.getAsyncResult();
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+    }
+}